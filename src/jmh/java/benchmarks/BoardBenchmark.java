@@ -0,0 +1,101 @@
+package benchmarks;
+
+import app.GameManager;
+import entities.Board;
+import entities.tokens.ArithmeticProgressionToken;
+import entities.tokens.ArithmeticProgressionTokenSpace;
+import entities.tokens.Token;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations of a board of the given size, a tenth of whose
+ * tokens were taken, for both layouts of the board:
+ * "indexed" registers the tokens of a set and "computed"
+ * starts with every token of a token space.
+ *
+ * @author Ioan Sava
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private static final long SEED = 42;
+
+    @Param({"1000", "100000"})
+    private int numberOfTokens;
+
+    @Param({"indexed", "computed"})
+    private String layout;
+
+    private Board board;
+    private Token[] tokens;
+    private int next;
+    private Random random;
+
+    @Setup
+    public void setUp() throws Exception {
+        int[] values = new GameManager().generateAPValues(numberOfTokens, 4 * numberOfTokens, SEED);
+        if (layout.equals("indexed")) {
+            Set<Token> tokenSet = new TreeSet<>();
+            for (int value : values) {
+                tokenSet.add(new ArithmeticProgressionToken(value));
+            }
+            board = new Board(tokenSet);
+        } else {
+            board = new Board(new ArithmeticProgressionTokenSpace(values));
+        }
+
+        random = new Random(SEED);
+        for (int i = 0; i < numberOfTokens / 10; ++i) {
+            board.removeToken(board.getRandomToken(random));
+        }
+        tokens = board.getTokens().toArray(new Token[0]);
+    }
+
+    @Benchmark
+    public boolean removeAndAdd() {
+        if (++next == tokens.length) {
+            next = 0;
+        }
+        board.removeToken(tokens[next]);
+        board.addTokens(tokens[next]);
+        return board.contains(tokens[next]);
+    }
+
+    @Benchmark
+    public int iterate() {
+        int hash = 0;
+        for (Token token : board.getTokens()) {
+            hash ^= token.hashCode();
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public Token randomToken() {
+        return board.getRandomToken(random);
+    }
+
+    @Benchmark
+    public Token tokenAtIndex() {
+        return board.getToken(random.nextInt(board.getNumberOfTokens()));
+    }
+}
@@ -0,0 +1,105 @@
+package benchmarks;
+
+import app.GameManager;
+import entities.Board;
+import entities.games.CliqueGame;
+import entities.games.Game;
+import entities.games.GameState;
+import entities.games.HandScorer;
+import entities.listeners.SilentGameListener;
+import entities.players.RandomPlayer;
+import entities.tokens.PersistentBitSet;
+import entities.tokens.Token;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring of the clique game for a player whose graph
+ * has the given number of nodes and holds every edge with
+ * the given probability, for a new edge taken from the board:
+ * the incremental scorer of the game, through a move and its undo,
+ * and the scorer of hands given as bitsets.
+ *
+ * @author Ioan Sava
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CliqueScoringBenchmark {
+    private static final long SEED = 42;
+
+    @Param({"16", "64", "256"})
+    private int numberOfNodes;
+
+    @Param({"0.1", "0.3", "0.5"})
+    private double density;
+
+    private Game game;
+    private Token[] candidates;
+    private int[] candidateIds;
+    private int next;
+
+    private HandScorer handScorer;
+    private PersistentBitSet hand;
+    private int handScore;
+
+    @Setup
+    public void setUp() throws Exception {
+        Board board = new GameManager().generateCGBoard(numberOfNodes);
+        // The objective cannot be reached, so every move can be scored
+        game = new CliqueGame(board, 1, numberOfNodes + 1);
+        game.setListener(SilentGameListener.INSTANCE);
+        game.addPlayers(new RandomPlayer("first"), new RandomPlayer("second"));
+        Random random = new Random(SEED);
+        for (int id = 0; id < board.getNumberOfIds(); ++id) {
+            if (random.nextDouble() < density) {
+                game.makeMove(0, board.tokenOf(id));
+            }
+        }
+
+        candidates = board.getTokens().toArray(new Token[0]);
+        candidateIds = new int[candidates.length];
+        for (int i = 0; i < candidates.length; ++i) {
+            candidateIds[i] = board.idOf(candidates[i]);
+        }
+        handScorer = game.getHandScorer();
+        GameState state = GameState.of(game, 0);
+        hand = state.getHand(0);
+        handScore = state.getScore(0);
+    }
+
+    private int nextCandidate() {
+        if (++next == candidates.length) {
+            next = 0;
+        }
+        return next;
+    }
+
+    @Benchmark
+    public int takeEdge() {
+        game.makeMove(0, candidates[nextCandidate()]);
+        int score = game.getScore(0);
+        game.undo();
+        return score;
+    }
+
+    @Benchmark
+    public int scoreHand() {
+        return handScorer.scoreWith(hand, candidateIds[nextCandidate()], handScore);
+    }
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import app.GameManager;
+import entities.games.ArithmeticProgressionGame;
+import entities.games.CliqueGame;
+import entities.games.Game;
+import entities.games.GameResult;
+import entities.listeners.SilentGameListener;
+import entities.players.RandomPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole games between two random players, from the
+ * generation of the board to the result, with the sizes
+ * used by the simulation manager.
+ *
+ * @author Ioan Sava
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameThroughputBenchmark {
+    private static final int NUMBER_OF_TOKENS = 10;
+    private static final int MAXIMUM_VALUE_OF_TOKEN = 15;
+    private static final int SIZE_OF_ARITHMETIC_PROGRESSION = 4;
+    private static final int NUMBER_OF_NODES = 8;
+    private static final int SIZE_OF_CLIQUE = 3;
+
+    @Param({"ap", "clique"})
+    private String typeOfGame;
+
+    private final GameManager gameManager = new GameManager();
+
+    @Benchmark
+    public GameResult playGame() throws Exception {
+        Game game = typeOfGame.equals("clique") ?
+                new CliqueGame(gameManager.generateCGBoard(NUMBER_OF_NODES), 1, SIZE_OF_CLIQUE) :
+                new ArithmeticProgressionGame(gameManager.generateAPBoard(NUMBER_OF_TOKENS, MAXIMUM_VALUE_OF_TOKEN),
+                        1, SIZE_OF_ARITHMETIC_PROGRESSION);
+        game.setListener(SilentGameListener.INSTANCE);
+        game.addPlayers(new RandomPlayer("first"), new RandomPlayer("second"));
+        return game.simulate();
+    }
+}
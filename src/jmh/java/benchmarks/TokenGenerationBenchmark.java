@@ -0,0 +1,71 @@
+package benchmarks;
+
+import app.GameManager;
+import entities.Board;
+import entities.tokens.Token;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation of the tokens of new games, as a set of tokens
+ * and as a board over a token space.
+ * The values of the arithmetic progression tokens are
+ * chosen up to ten times their number.
+ *
+ * @author Ioan Sava
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenGenerationBenchmark {
+    private static final long SEED = 42;
+
+    @State(Scope.Benchmark)
+    public static class ArithmeticProgressionTokens {
+        @Param({"100", "10000"})
+        private int numberOfTokens;
+
+        private final GameManager gameManager = new GameManager();
+    }
+
+    @State(Scope.Benchmark)
+    public static class CliqueTokens {
+        @Param({"16", "128"})
+        private int numberOfNodes;
+
+        private final GameManager gameManager = new GameManager();
+    }
+
+    @Benchmark
+    public Set<Token> arithmeticProgressionTokens(ArithmeticProgressionTokens tokens) throws Exception {
+        return tokens.gameManager.generateAPTokens(tokens.numberOfTokens, 10 * tokens.numberOfTokens);
+    }
+
+    @Benchmark
+    public Board arithmeticProgressionBoard(ArithmeticProgressionTokens tokens) throws Exception {
+        return tokens.gameManager.generateAPBoard(tokens.numberOfTokens, 10 * tokens.numberOfTokens, SEED);
+    }
+
+    @Benchmark
+    public Set<Token> cliqueTokens(CliqueTokens tokens) {
+        return tokens.gameManager.generateCGTokens(tokens.numberOfNodes);
+    }
+
+    @Benchmark
+    public Board cliqueBoard(CliqueTokens tokens) {
+        return tokens.gameManager.generateCGBoard(tokens.numberOfNodes);
+    }
+}
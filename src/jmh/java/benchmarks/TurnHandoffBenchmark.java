@@ -0,0 +1,153 @@
+package benchmarks;
+
+import entities.execution.TurnHandoff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast the turn is passed around
+ * a table of player threads, comparing the targeted
+ * {@link TurnHandoff} with a shared monitor on which
+ * every turn change calls notifyAll().
+ * The score is the latency of one handoff.
+ *
+ * @author Ioan Sava
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnHandoffBenchmark {
+    private static final int HANDOFFS = 20_000;
+
+    @Param({"2", "4", "8", "16", "32", "64"})
+    private int numberOfPlayers;
+
+    @Param({"notifyAll", "handoff"})
+    private String mechanism;
+
+    /**
+     * A table of players passing the turn to each other
+     * until the given number of handoffs has been made.
+     */
+    private abstract static class Table {
+        protected final int numberOfPlayers;
+        protected final int handoffs;
+        protected volatile int currentTurn;
+        protected int moves;
+
+        Table(int numberOfPlayers, int handoffs) {
+            this.numberOfPlayers = numberOfPlayers;
+            this.handoffs = handoffs;
+        }
+
+        abstract void awaitTurn(int seat);
+
+        abstract void passTurn(int nextTurn);
+
+        void play(int seat) {
+            while (true) {
+                awaitTurn(seat);
+                if (currentTurn == -1) {
+                    return;
+                }
+                ++moves;
+                passTurn(moves == handoffs ? -1 : (seat + 1) % numberOfPlayers);
+            }
+        }
+
+        /**
+         * @return the elapsed time in nanoseconds
+         */
+        long run() throws InterruptedException {
+            Thread[] players = new Thread[numberOfPlayers];
+            for (int seat = 0; seat < numberOfPlayers; ++seat) {
+                int playerSeat = seat;
+                players[seat] = new Thread(() -> play(playerSeat));
+                players[seat].start();
+            }
+
+            long startTime = System.nanoTime();
+            passTurn(0);
+            for (Thread player : players) {
+                player.join();
+            }
+            return System.nanoTime() - startTime;
+        }
+    }
+
+    private static class MonitorTable extends Table {
+        MonitorTable(int numberOfPlayers, int handoffs) {
+            super(numberOfPlayers, handoffs);
+            currentTurn = Integer.MIN_VALUE;
+        }
+
+        @Override
+        void awaitTurn(int seat) {
+            synchronized (this) {
+                while (currentTurn != seat && currentTurn != -1) {
+                    try {
+                        wait();
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        void passTurn(int nextTurn) {
+            synchronized (this) {
+                currentTurn = nextTurn;
+                notifyAll();
+            }
+        }
+    }
+
+    private static class HandoffTable extends Table {
+        private final TurnHandoff turnHandoff;
+
+        HandoffTable(int numberOfPlayers, int handoffs) {
+            super(numberOfPlayers, handoffs);
+            currentTurn = Integer.MIN_VALUE;
+            turnHandoff = new TurnHandoff(numberOfPlayers);
+        }
+
+        @Override
+        void awaitTurn(int seat) {
+            turnHandoff.await(seat, () -> currentTurn);
+        }
+
+        @Override
+        void passTurn(int nextTurn) {
+            currentTurn = nextTurn;
+            if (nextTurn == -1) {
+                turnHandoff.signalAll();
+            } else {
+                turnHandoff.signal(nextTurn);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HANDOFFS)
+    public long passTurn() throws InterruptedException {
+        Table table = mechanism.equals("notifyAll") ? new MonitorTable(numberOfPlayers, HANDOFFS)
+                : new HandoffTable(numberOfPlayers, HANDOFFS);
+        return table.run();
+    }
+}
@@ -6,15 +6,16 @@ import entities.games.CliqueGame;
 import entities.games.Game;
 import entities.players.ManualPlayer;
 import entities.tokens.ArithmeticProgressionToken;
+import entities.tokens.ArithmeticProgressionTokenSpace;
 import entities.players.Player;
 import entities.players.RandomPlayer;
 import entities.tokens.Token;
 import entities.tokens.clique_token.CliqueGameToken;
+import entities.tokens.clique_token.CliqueTokenSpace;
 import exceptions.*;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.ThreadLocalRandom;
 
 
 /**
@@ -31,6 +32,12 @@ public class GameManager {
     private final int NUMBER_OF_NODES = 8;
     private final int SIZE_OF_CLIQUE = 3;
 
+    /**
+     * The set of the chosen values has at least twice as many slots
+     * as values and must fit in an array
+     */
+    private static final int MAXIMUM_NUMBER_OF_AP_VALUES = (1 << 29) - 1;
+
     public static void main(String[] args) {
         GameManager gameManager = new GameManager();
         int typeOfGame = gameManager.chooseGame();
@@ -60,14 +67,77 @@ public class GameManager {
     }
 
     /**
-     * Generate a random permutation of
-     * the elements in the range [lowerBound, upperBound]
+     * Generate 'numberOfTokens' distinct values from the range
+     * [0, maximumValueOfToken], sorted, with Floyd's algorithm:
+     * for every j of the last numberOfTokens values of the range,
+     * a random value up to j is taken, or j if it was taken already.
+     * Every subset is equally likely and only the chosen values
+     * are stored, so it works in O(k log k) for k tokens
+     * whatever the size of the range.
+     */
+    public int[] generateAPValues(int numberOfTokens, int maximumValueOfToken, long seed)
+            throws InvalidTokenValueException {
+        if (maximumValueOfToken < 0) {
+            throw new InvalidTokenValueException();
+        }
+        if (numberOfTokens < 0 || numberOfTokens > maximumValueOfToken + 1L) {
+            throw new IllegalArgumentException("Cannot choose " + numberOfTokens +
+                    " distinct values up to " + maximumValueOfToken);
+        }
+        if (numberOfTokens > MAXIMUM_NUMBER_OF_AP_VALUES) {
+            throw new IllegalArgumentException("Cannot choose more than " + MAXIMUM_NUMBER_OF_AP_VALUES +
+                    " values, " + numberOfTokens + " were asked for");
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        // Open addressing set of the chosen values, -1 marks a free slot
+        long sizeOfSet = Math.max(2, (long) Integer.highestOneBit(Math.max(1, numberOfTokens)) << 2);
+        int[] chosen = new int[(int) Math.min(sizeOfSet, 1 << 30)];
+        Arrays.fill(chosen, -1);
+        int[] values = new int[numberOfTokens];
+        for (int i = 0; i < numberOfTokens; ++i) {
+            int j = maximumValueOfToken - numberOfTokens + 1 + i;
+            int value = j == Integer.MAX_VALUE ? random.nextInt() & Integer.MAX_VALUE : random.nextInt(j + 1);
+            if (!insert(chosen, value)) {
+                value = j;
+                insert(chosen, value);
+            }
+            values[i] = value;
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    /**
+     * @return false if the value was already in the set
      */
-    private List<Integer> generateRandomPermutation(int lowerBound, int upperBound) {
-        List<Integer> permutation = IntStream.rangeClosed(lowerBound, upperBound)
-                .boxed().collect(Collectors.toList());
-        Collections.shuffle(permutation);
-        return permutation;
+    private static boolean insert(int[] set, int value) {
+        int mask = set.length - 1;
+        int slot = (value * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(mask) & mask;
+        while (set[slot] != -1) {
+            if (set[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        set[slot] = value;
+        return true;
+    }
+
+    /**
+     * A board with the tokens of generateAPValues,
+     * which are created from their values when needed
+     */
+    public Board generateAPBoard(int numberOfTokens, int maximumValueOfToken, long seed)
+            throws InvalidTokenValueException {
+        Board board = new Board(new ArithmeticProgressionTokenSpace(
+                generateAPValues(numberOfTokens, maximumValueOfToken, seed)));
+        board.setSeed(seed);
+        return board;
+    }
+
+    public Board generateAPBoard(int numberOfTokens, int maximumValueOfToken) throws InvalidTokenValueException {
+        return generateAPBoard(numberOfTokens, maximumValueOfToken, ThreadLocalRandom.current().nextLong());
     }
 
     /**
@@ -78,10 +148,9 @@ public class GameManager {
     public Set<Token> generateAPTokens(int numberOfTokens, int maximumValueOfToken)
             throws InvalidTokenValueException {
         Set<Token> tokens = new TreeSet<>();
-        List<Integer> permutation = generateRandomPermutation(0, maximumValueOfToken);
-
-        for (int i = 0; i < numberOfTokens; ++i) {
-            tokens.add(new ArithmeticProgressionToken(permutation.get(i)));
+        for (int value : generateAPValues(numberOfTokens, maximumValueOfToken,
+                ThreadLocalRandom.current().nextLong())) {
+            tokens.add(new ArithmeticProgressionToken(value));
         }
 
         return tokens;
@@ -103,6 +172,15 @@ public class GameManager {
         return tokens;
     }
 
+    /**
+     * A board with all the edges between 'numberOfNodes' nodes,
+     * in the same order as generateCGTokens, which computes
+     * the edges instead of creating them all
+     */
+    public Board generateCGBoard(int numberOfNodes) {
+        return new Board(new CliqueTokenSpace(numberOfNodes));
+    }
+
     public void addPlayersToGame(Game game, int numberOfPlayer) {
         Scanner scanner = new Scanner(System.in);
 
@@ -126,8 +204,7 @@ public class GameManager {
 
     public void playArithmeticProgressionGame() {
         try {
-            Set<Token> tokens = generateAPTokens(NUMBER_OF_TOKENS, MAXIMUM_VALUE_OF_TOKEN);
-            Board board = new Board(tokens);
+            Board board = generateAPBoard(NUMBER_OF_TOKENS, MAXIMUM_VALUE_OF_TOKEN);
             Game game = new ArithmeticProgressionGame(board, DURATION_OF_GAME, SIZE_OF_ARITHMETIC_PROGRESSION);
             addMockPlayersToGame(game);
             game.start();
@@ -139,8 +216,7 @@ public class GameManager {
 
     public void playCliqueGame() {
         try {
-            Set<Token> tokens = generateCGTokens(NUMBER_OF_NODES);
-            Board board = new Board(tokens);
+            Board board = generateCGBoard(NUMBER_OF_NODES);
             Game game = new CliqueGame(board, DURATION_OF_GAME, SIZE_OF_CLIQUE);
             addMockPlayersToGame(game);
             game.start();
@@ -0,0 +1,142 @@
+package app;
+
+import entities.Board;
+import entities.execution.ExecutionModel;
+import entities.execution.SharedExecutorExecution;
+import entities.execution.ThreadPerPlayerExecution;
+import entities.games.ArithmeticProgressionGame;
+import entities.games.CliqueGame;
+import entities.games.Game;
+import entities.players.AlphaBetaPlayer;
+import entities.players.CliqueThreatPlayer;
+import entities.players.MonteCarloPlayer;
+import entities.players.Player;
+import entities.players.RandomPlayer;
+import entities.players.SmartPlayer;
+import exceptions.SimulationException;
+import simulation.LoadDriver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Load generator for soak tests: keeps a number of games
+ * live with real player threads (or tasks) and reports the
+ * throughput, the move latency and the resources of the JVM
+ * over time, see {@link LoadDriver}.
+ * <p>
+ * Usage: LoadGenerator [option=value]... with the options
+ * <ul>
+ * <li>game: ap or clique (ap)</li>
+ * <li>size: number of tokens of the ap board or nodes of the clique board (10)</li>
+ * <li>objective: size of the progression or of the clique (4)</li>
+ * <li>players: the player of each seat, separated by commas, among random, smart,
+ * threat, montecarlo:moveTimeInMilliseconds and alphabeta:moveTimeInMilliseconds (random,random)</li>
+ * <li>execution: threads, virtual or shared:numberOfThreads (threads)</li>
+ * <li>live: maximum number of live games (100)</li>
+ * <li>rate: new games per second (100)</li>
+ * <li>duration: seconds during which games are started (60)</li>
+ * <li>interval: seconds between reports (5)</li>
+ * <li>drain: seconds to wait for the live games at the end (30)</li>
+ * </ul>
+ *
+ * @author Ioan Sava
+ */
+public class LoadGenerator {
+    private final int DURATION_OF_GAME = 1;
+
+    private final GameManager gameManager = new GameManager();
+    private final Map<String, String> options = new HashMap<>();
+
+    public static void main(String[] args) {
+        LoadGenerator loadGenerator = new LoadGenerator();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator == -1) {
+                System.out.println("Invalid option " + arg + ", expected option=value");
+                return;
+            }
+            loadGenerator.options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        try {
+            loadGenerator.run();
+        } catch (SimulationException | IllegalArgumentException exception) {
+            System.out.println(exception.getMessage());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(option(name, String.valueOf(defaultValue)));
+    }
+
+    public void run() throws SimulationException, InterruptedException {
+        ExecutorService executor = null;
+        ExecutionModel executionModel;
+        String execution = option("execution", "threads");
+        if (execution.equals("threads")) {
+            executionModel = new ThreadPerPlayerExecution();
+        } else if (execution.equals("virtual")) {
+            executionModel = ThreadPerPlayerExecution.virtualThreads();
+        } else if (execution.startsWith("shared:")) {
+            executor = Executors.newFixedThreadPool(Integer.parseInt(execution.substring("shared:".length())));
+            executionModel = new SharedExecutorExecution(executor);
+        } else {
+            throw new IllegalArgumentException("Invalid execution " + execution);
+        }
+
+        LoadDriver loadDriver = new LoadDriver(this::createGame, executionModel,
+                intOption("live", 100), Double.parseDouble(option("rate", "100")));
+        try {
+            loadDriver.run(intOption("duration", 60), intOption("interval", 5), intOption("drain", 30), System.out);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private Game createGame() throws Exception {
+        int size = intOption("size", 10);
+        int objective = intOption("objective", 4);
+        Game game;
+        if (option("game", "ap").equals("clique")) {
+            game = new CliqueGame(gameManager.generateCGBoard(size), DURATION_OF_GAME, objective);
+        } else {
+            Board board = gameManager.generateAPBoard(size, 3 * size / 2);
+            game = new ArithmeticProgressionGame(board, DURATION_OF_GAME, objective);
+        }
+
+        String[] players = option("players", "random,random").split(",");
+        for (int seat = 0; seat < players.length; ++seat) {
+            game.addPlayers(createPlayer(players[seat], "player" + (seat + 1)));
+        }
+        return game;
+    }
+
+    private static Player createPlayer(String type, String name) {
+        String[] parts = type.split(":");
+        switch (parts[0]) {
+            case "random":
+                return new RandomPlayer(name);
+            case "smart":
+                return new SmartPlayer(name);
+            case "threat":
+                return new CliqueThreatPlayer(name);
+            case "montecarlo":
+                return new MonteCarloPlayer(name, parts.length > 1 ? Long.parseLong(parts[1]) : 100);
+            case "alphabeta":
+                return new AlphaBetaPlayer(name, parts.length > 1 ? Long.parseLong(parts[1]) : 100);
+            default:
+                throw new IllegalArgumentException("Invalid player " + type);
+        }
+    }
+}
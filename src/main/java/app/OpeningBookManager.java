@@ -0,0 +1,82 @@
+package app;
+
+import entities.Board;
+import entities.games.ArithmeticProgressionGame;
+import entities.games.CliqueGame;
+import entities.games.Game;
+import entities.players.RandomPlayer;
+import entities.players.search.OpeningBook;
+import entities.players.search.OpeningBookBuilder;
+import exceptions.SimulationException;
+import simulation.BatchSimulator;
+import simulation.GameSupplier;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Headless application which builds an opening book
+ * from the statistics of many self-play games,
+ * played on all the available cores.
+ * <p>
+ * Usage: OpeningBookManager [ap|clique] [numberOfGames] [maximumPly] [file]
+ *
+ * @author Ioan Sava
+ */
+public class OpeningBookManager {
+    private final int NUMBER_OF_TOKENS = 15;
+    private final int MAXIMUM_VALUE_OF_TOKEN = 15;
+    private final int SIZE_OF_ARITHMETIC_PROGRESSION = 4;
+    private final int DURATION_OF_GAME = 1;
+    private final int NUMBER_OF_NODES = 8;
+    private final int SIZE_OF_CLIQUE = 4;
+    private final long DEFAULT_NUMBER_OF_GAMES = 1_000_000;
+    private final int DEFAULT_MAXIMUM_PLY = 4;
+
+    private final GameManager gameManager = new GameManager();
+
+    public static void main(String[] args) {
+        OpeningBookManager openingBookManager = new OpeningBookManager();
+        String typeOfGame = args.length > 0 ? args[0] : "ap";
+        long numberOfGames = args.length > 1 ? Long.parseLong(args[1]) : openingBookManager.DEFAULT_NUMBER_OF_GAMES;
+        int maximumPly = args.length > 2 ? Integer.parseInt(args[2]) : openingBookManager.DEFAULT_MAXIMUM_PLY;
+        Path path = Paths.get(args.length > 3 ? args[3] : typeOfGame + ".book");
+
+        try {
+            openingBookManager.buildBook(typeOfGame.equals("clique"), numberOfGames, maximumPly, path);
+        } catch (SimulationException | IOException exception) {
+            System.out.println(exception.getMessage());
+        }
+    }
+
+    private Game createArithmeticProgressionGame() throws Exception {
+        Board board = gameManager.generateAPBoard(NUMBER_OF_TOKENS, MAXIMUM_VALUE_OF_TOKEN);
+        return new ArithmeticProgressionGame(board, DURATION_OF_GAME, SIZE_OF_ARITHMETIC_PROGRESSION);
+    }
+
+    private Game createCliqueGame() throws Exception {
+        Board board = gameManager.generateCGBoard(NUMBER_OF_NODES);
+        return new CliqueGame(board, DURATION_OF_GAME, SIZE_OF_CLIQUE);
+    }
+
+    public void buildBook(boolean cliqueGames, long numberOfGames, int maximumPly, Path path)
+            throws SimulationException, IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(maximumPly);
+        GameSupplier gameSupplier = () -> {
+            Game game = cliqueGames ? createCliqueGame() : createArithmeticProgressionGame();
+            game.setListener(builder);
+            game.addPlayers(new RandomPlayer("first"), new RandomPlayer("second"));
+            return game;
+        };
+
+        long startTime = System.nanoTime();
+        new BatchSimulator(gameSupplier).run(numberOfGames);
+        builder.write(path);
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        try (OpeningBook book = new OpeningBook(path)) {
+            System.out.printf("%d games, %d entries written to %s in %.2f seconds%n",
+                    builder.getNumberOfGames(), book.getNumberOfEntries(), path, seconds);
+        }
+    }
+}
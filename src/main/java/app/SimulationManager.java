@@ -0,0 +1,112 @@
+package app;
+
+import entities.Board;
+import entities.games.ArithmeticProgressionGame;
+import entities.games.CliqueGame;
+import entities.games.Game;
+import entities.journal.GameJournal;
+import entities.listeners.GameListener;
+import entities.listeners.SilentGameListener;
+import entities.players.RandomPlayer;
+import entities.players.SmartPlayer;
+import exceptions.SimulationException;
+import simulation.BatchSimulator;
+import simulation.SimulationResult;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Headless application which estimates the win rates
+ * of the non-interactive strategies by playing
+ * a large number of games on all the available cores.
+ * <p>
+ * The games can be archived in a {@link GameJournal}.
+ * <p>
+ * Usage: SimulationManager [ap|clique] [numberOfGames] [journal]
+ *
+ * @author Ioan Sava
+ */
+public class SimulationManager {
+    private final int NUMBER_OF_TOKENS = 10;
+    private final int MAXIMUM_VALUE_OF_TOKEN = 15;
+    private final int SIZE_OF_ARITHMETIC_PROGRESSION = 4;
+    private final int DURATION_OF_GAME = 1;
+    private final int NUMBER_OF_NODES = 8;
+    private final int SIZE_OF_CLIQUE = 3;
+    private final long DEFAULT_NUMBER_OF_GAMES = 1_000_000;
+
+    private final GameManager gameManager = new GameManager();
+    private GameListener listener = SilentGameListener.INSTANCE;
+
+    public static void main(String[] args) {
+        SimulationManager simulationManager = new SimulationManager();
+        String typeOfGame = args.length > 0 ? args[0] : "ap";
+        long numberOfGames = args.length > 1 ? Long.parseLong(args[1]) : simulationManager.DEFAULT_NUMBER_OF_GAMES;
+
+        GameJournal journal = null;
+        try {
+            if (args.length > 2) {
+                journal = new GameJournal(Paths.get(args[2]));
+                simulationManager.listener = journal;
+            }
+            if (typeOfGame.equals("clique")) {
+                simulationManager.simulateCliqueGames(numberOfGames);
+            } else {
+                simulationManager.simulateArithmeticProgressionGames(numberOfGames);
+            }
+        } catch (SimulationException | IOException exception) {
+            System.out.println(exception.getMessage());
+        } finally {
+            closeJournal(journal);
+        }
+    }
+
+    private static void closeJournal(GameJournal journal) {
+        if (journal != null) {
+            try {
+                journal.close();
+                System.out.println(journal.getNumberOfGames() + " games written to the journal");
+            } catch (IOException exception) {
+                System.out.println(exception.getMessage());
+            }
+        }
+    }
+
+
+    private Game createArithmeticProgressionGame() throws Exception {
+        Board board = gameManager.generateAPBoard(NUMBER_OF_TOKENS, MAXIMUM_VALUE_OF_TOKEN);
+        Game game = new ArithmeticProgressionGame(board, DURATION_OF_GAME, SIZE_OF_ARITHMETIC_PROGRESSION);
+        game.setListener(listener);
+        game.addPlayers(new RandomPlayer("random"), new SmartPlayer("smart"));
+        return game;
+    }
+
+    private Game createCliqueGame() throws Exception {
+        Board board = gameManager.generateCGBoard(NUMBER_OF_NODES);
+        Game game = new CliqueGame(board, DURATION_OF_GAME, SIZE_OF_CLIQUE);
+        game.setListener(listener);
+        game.addPlayers(new RandomPlayer("first"), new RandomPlayer("second"));
+        return game;
+    }
+
+    private void report(SimulationResult result, long startTime) {
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.print(result);
+        System.out.printf("%.2f seconds, %.0f games per second%n", seconds, result.getNumberOfGames() / seconds);
+    }
+
+    public SimulationResult simulateArithmeticProgressionGames(long numberOfGames) throws SimulationException {
+        long startTime = System.nanoTime();
+        SimulationResult result = new BatchSimulator(this::createArithmeticProgressionGame).run(numberOfGames);
+        report(result, startTime);
+        return result;
+    }
+
+    public SimulationResult simulateCliqueGames(long numberOfGames) throws SimulationException {
+        long startTime = System.nanoTime();
+        SimulationResult result = new BatchSimulator(this::createCliqueGame).run(numberOfGames);
+        report(result, startTime);
+        return result;
+    }
+}
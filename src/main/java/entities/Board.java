@@ -1,9 +1,11 @@
 package entities;
 
 import entities.tokens.Token;
-import lombok.AllArgsConstructor;
+import entities.tokens.TokenRegistry;
+import entities.tokens.TokenSpace;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.util.*;
 
@@ -11,30 +13,172 @@ import java.util.*;
  * At the beginning of the game
  * the board contains a given number
  * of tokens.
+ * <p>
+ * Every token which can be on the board has an id in the token
+ * space of the board, and the board keeps the ids of its tokens
+ * (see {@link BoardIds}), so that a random token is found in O(1)
+ * and the k-th token in the order of the ids (the order in which
+ * the board is shown) in O(log n).
+ * A board made from a set of tokens registers them and indexes
+ * their ids. A board made from a space which computes its tokens
+ * (like the edges of a complete graph, {@link entities.tokens.clique_token.CliqueTokenSpace})
+ * starts with all of them and stores only the ids removed from it,
+ * so it is created in O(1) however large the space is.
  *
  * @author Ioan Sava
  */
-@NoArgsConstructor
-@AllArgsConstructor
 @Getter
 public class Board {
-    private Set<Token> tokens = new HashSet<>();
+    /**
+     * Gives the ids of the tokens of the game,
+     * also used for the hands of the players
+     */
+    private final TokenSpace tokenSpace;
+
+    @Getter(AccessLevel.NONE)
+    private final BoardIds ids;
+
+    /**
+     * Read-only view of the tokens on the board
+     */
+    @Getter(AccessLevel.NONE)
+    private final Set<Token> tokensView = new TokensView();
+
+    /**
+     * The seed of the random generator which chose the tokens,
+     * or 0 if it is not known; it is kept in the game journals
+     */
+    @Setter
+    private long seed;
+
+    /**
+     * The last rendering of the board,
+     * until the tokens are changed
+     */
+    @Getter(AccessLevel.NONE)
+    private String rendering;
+
+    public Board() {
+        tokenSpace = new TokenRegistry();
+        ids = new IndexedBoardIds(tokenSpace);
+    }
+
+    /**
+     * The tokens are copied to the board
+     */
+    public Board(Set<Token> tokens) {
+        this();
+        for (Token token : tokens) {
+            ids.add(tokenSpace.register(token));
+        }
+    }
+
+    /**
+     * A board with every token of the space, none of them created
+     * until it is needed. A token which was removed can be put back,
+     * but a token outside the space cannot be added.
+     */
+    public Board(TokenSpace tokenSpace) {
+        this.tokenSpace = tokenSpace;
+        ids = new CompleteBoardIds(tokenSpace.size());
+    }
+
+    /**
+     * The tokens on the board, in the order of their ids.
+     * The set cannot be changed, the board is changed
+     * with addTokens and removeToken.
+     */
+    public Set<Token> getTokens() {
+        return tokensView;
+    }
 
     public void addTokens(Token... tokens) {
-        this.tokens.addAll(Arrays.asList(tokens));
+        for (Token token : tokens) {
+            ids.add(tokenSpace.register(token));
+        }
+        rendering = null;
+    }
+
+    public boolean contains(Token token) {
+        int id = tokenSpace.idOf(token);
+        return id != -1 && ids.contains(id);
+    }
+
+    /**
+     * Number of tokens on the board
+     */
+    public int getNumberOfTokens() {
+        return ids.size();
+    }
+
+    /**
+     * A token chosen uniformly at random among
+     * the tokens on the board
+     */
+    public Token getRandomToken(Random random) {
+        return tokenSpace.tokenOf(ids.random(random));
+    }
+
+    /**
+     * The token with the given index in the order of the ids,
+     * which is the order in which the board is shown
+     *
+     * @param index between 0 and getNumberOfTokens() - 1
+     */
+    public Token getToken(int index) {
+        if (index < 0 || index >= ids.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + ids.size());
+        }
+        return tokenSpace.tokenOf(ids.get(index));
+    }
+
+    /**
+     * The id of a token, or -1 if the token cannot be on the board
+     */
+    public int idOf(Token token) {
+        return tokenSpace.idOf(token);
+    }
+
+    public Token tokenOf(int id) {
+        return tokenSpace.tokenOf(id);
+    }
+
+    /**
+     * The ids of the tokens are between 0 and getNumberOfIds() - 1
+     */
+    public int getNumberOfIds() {
+        return tokenSpace.size();
+    }
+
+    /**
+     * Whether the token with the given id is on the board
+     */
+    public boolean containsId(int id) {
+        return ids.contains(id);
     }
 
     public void removeToken(Token token) {
-        this.tokens.remove(token);
+        int id = idOf(token);
+        if (id != -1) {
+            ids.remove(id);
+        }
+        rendering = null;
     }
 
     @Override
     public String toString() {
+        if (rendering == null) {
+            rendering = render();
+        }
+        return rendering;
+    }
+
+    private String render() {
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append("**************\n");
         stringBuilder.append("Board:\n");
         int counter = 0;
-        for (Token token : tokens) {
+        for (Token token : tokensView) {
             stringBuilder.append(counter).append(". ").append(token).append("   ");
             ++counter;
             if (counter % 4 == 0) {
@@ -48,4 +192,38 @@ public class Board {
         stringBuilder.append("**************\n");
         return stringBuilder.toString();
     }
+
+    private class TokensView extends AbstractSet<Token> {
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Token && Board.this.contains((Token) o);
+        }
+
+        @Override
+        public int size() {
+            return ids.size();
+        }
+
+        @Override
+        public Iterator<Token> iterator() {
+            return new Iterator<Token>() {
+                private int next = ids.next(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next != -1;
+                }
+
+                @Override
+                public Token next() {
+                    if (next == -1) {
+                        throw new NoSuchElementException();
+                    }
+                    Token token = tokenSpace.tokenOf(next);
+                    next = ids.next(next + 1);
+                    return token;
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package entities;
+
+import java.util.Random;
+
+/**
+ * The ids of the tokens on a board, in the token space of the board.
+ *
+ * @author Ioan Sava
+ */
+interface BoardIds {
+    boolean contains(int id);
+
+    /**
+     * @return true if the id was not on the board
+     */
+    boolean add(int id);
+
+    /**
+     * @return true if the id was on the board
+     */
+    boolean remove(int id);
+
+    int size();
+
+    /**
+     * The id with the given index in increasing order
+     */
+    int get(int index);
+
+    /**
+     * An id chosen uniformly at random
+     */
+    int random(Random random);
+
+    /**
+     * The smallest id which is at least the given one, or -1
+     */
+    int next(int from);
+}
@@ -0,0 +1,121 @@
+package entities;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The ids of a board which starts with every token of its space:
+ * only the ids removed from the board are stored, in a sorted array,
+ * so the memory depends on the number of moves, not on the size
+ * of the space. With r removed ids, the k-th id is found by a binary
+ * search over the ids, counting the removed ids before each candidate,
+ * in O(log^2 r), and a random id is the k-th id for a random k.
+ *
+ * @author Ioan Sava
+ */
+class CompleteBoardIds implements BoardIds {
+    private final int numberOfIds;
+    private int[] removed = new int[16];
+    private int numberOfRemoved;
+
+    CompleteBoardIds(int numberOfIds) {
+        this.numberOfIds = numberOfIds;
+    }
+
+    /**
+     * The index of the id in the removed ids,
+     * or -(insertion point) - 1 if it is not removed
+     */
+    private int search(int id) {
+        return Arrays.binarySearch(removed, 0, numberOfRemoved, id);
+    }
+
+    /**
+     * Number of removed ids which are at most the given id
+     */
+    private int removedUpTo(int id) {
+        int index = search(id);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return id >= 0 && id < numberOfIds && search(id) < 0;
+    }
+
+    /**
+     * Only a removed id can be put back
+     */
+    @Override
+    public boolean add(int id) {
+        int index = search(id);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(removed, index + 1, removed, index, numberOfRemoved - index - 1);
+        --numberOfRemoved;
+        return true;
+    }
+
+    @Override
+    public boolean remove(int id) {
+        if (id < 0 || id >= numberOfIds) {
+            return false;
+        }
+        int index = search(id);
+        if (index >= 0) {
+            return false;
+        }
+        index = -index - 1;
+        if (numberOfRemoved == removed.length) {
+            removed = Arrays.copyOf(removed, 2 * removed.length);
+        }
+        System.arraycopy(removed, index, removed, index + 1, numberOfRemoved - index);
+        removed[index] = id;
+        ++numberOfRemoved;
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return numberOfIds - numberOfRemoved;
+    }
+
+    /**
+     * The smallest id x with x + 1 - removedUpTo(x) = index + 1,
+     * which is between index and index + r
+     */
+    @Override
+    public int get(int index) {
+        int low = index;
+        int high = (int) Math.min(numberOfIds - 1L, (long) index + numberOfRemoved);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (middle - removedUpTo(middle) < index) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public int random(Random random) {
+        return get(random.nextInt(size()));
+    }
+
+    @Override
+    public int next(int from) {
+        int id = Math.max(0, from);
+        int index = search(id);
+        if (index >= 0) {
+            // Skips the run of removed ids which starts with the id
+            while (index < numberOfRemoved && removed[index] == id) {
+                ++id;
+                ++index;
+            }
+        }
+        return id < numberOfIds ? id : -1;
+    }
+}
@@ -0,0 +1,133 @@
+package entities;
+
+import entities.tokens.TokenSet;
+import entities.tokens.TokenSpace;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The ids of a board which holds any tokens: a bitset over the ids,
+ * the ids in a dense array, so that a random id is found in O(1),
+ * and a Fenwick tree indexed by id, so that the k-th id is found
+ * in O(log n). Adding and removing an id update all of them in O(log n).
+ *
+ * @author Ioan Sava
+ */
+class IndexedBoardIds implements BoardIds {
+    private final TokenSet ids;
+
+    /**
+     * The ids on the board, in no particular order
+     */
+    private int[] dense = new int[16];
+
+    /**
+     * The index of each id in dense, or -1 if it is not on the board
+     */
+    private int[] denseIndex = new int[16];
+
+    /**
+     * Counts the ids on the board;
+     * fenwick[i] covers the ids (i - (i & -i), i]
+     */
+    private int[] fenwick = new int[17];
+
+    private int size;
+
+    IndexedBoardIds(TokenSpace space) {
+        ids = new TokenSet(space);
+        Arrays.fill(denseIndex, -1);
+    }
+
+    /**
+     * Doubles the capacity of the index structures until the id fits
+     */
+    private void ensureCapacity(int id) {
+        if (id < denseIndex.length) {
+            return;
+        }
+
+        int capacity = denseIndex.length;
+        while (capacity <= id) {
+            capacity *= 2;
+        }
+        int oldCapacity = denseIndex.length;
+        dense = Arrays.copyOf(dense, capacity);
+        denseIndex = Arrays.copyOf(denseIndex, capacity);
+        Arrays.fill(denseIndex, oldCapacity, capacity, -1);
+        fenwick = new int[capacity + 1];
+        for (int onBoard = ids.nextId(0); onBoard != -1; onBoard = ids.nextId(onBoard + 1)) {
+            updateCount(onBoard, 1);
+        }
+    }
+
+    private void updateCount(int id, int delta) {
+        for (int i = id + 1; i < fenwick.length; i += i & -i) {
+            fenwick[i] += delta;
+        }
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return ids.containsId(id);
+    }
+
+    @Override
+    public boolean add(int id) {
+        ensureCapacity(id);
+        if (!ids.addId(id)) {
+            return false;
+        }
+        denseIndex[id] = size;
+        dense[size++] = id;
+        updateCount(id, 1);
+        return true;
+    }
+
+    @Override
+    public boolean remove(int id) {
+        if (!ids.removeId(id)) {
+            return false;
+        }
+        int index = denseIndex[id];
+        int last = dense[--size];
+        dense[index] = last;
+        denseIndex[last] = index;
+        denseIndex[id] = -1;
+        updateCount(id, -1);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Binary lifting on the Fenwick tree, in O(log n)
+     */
+    @Override
+    public int get(int index) {
+        int position = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(fenwick.length - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < fenwick.length && fenwick[next] < remaining) {
+                position = next;
+                remaining -= fenwick[next];
+            }
+        }
+        return position;
+    }
+
+    @Override
+    public int random(Random random) {
+        return dense[random.nextInt(size)];
+    }
+
+    @Override
+    public int next(int from) {
+        return ids.nextId(from);
+    }
+}
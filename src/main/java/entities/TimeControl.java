@@ -0,0 +1,50 @@
+package entities;
+
+import exceptions.InvalidTimeException;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time limits of a game, in milliseconds.
+ * A limit equal to 0 means that there is no such limit.
+ *
+ * @author Ioan Sava
+ */
+@Getter
+public class TimeControl {
+    /**
+     * Maximum duration of the whole game
+     */
+    private final long gameTime;
+
+    /**
+     * Initial time on the clock of each player.
+     * The clock of a player runs only during his turns.
+     */
+    private final long playerTime;
+
+    /**
+     * Time added to the clock of a player after each of his moves
+     */
+    private final long increment;
+
+    public TimeControl(long gameTime, long playerTime, long increment) throws InvalidTimeException {
+        if (gameTime < 0 || playerTime < 0 || increment < 0) {
+            throw new InvalidTimeException("A time limit cannot be negative");
+        }
+        this.gameTime = gameTime;
+        this.playerTime = playerTime;
+        this.increment = increment;
+    }
+
+    /**
+     * Only the duration of the whole game is limited.
+     */
+    public static TimeControl ofMinutes(int minutes) throws InvalidTimeException {
+        if (minutes < 1) {
+            throw new InvalidTimeException("A time keeper should run for at least 1 minute");
+        }
+        return new TimeControl(TimeUnit.MINUTES.toMillis(minutes), 0, 0);
+    }
+}
@@ -1,44 +1,216 @@
 package entities;
 
-import exceptions.InvalidTimeException;
+import entities.games.Game;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.util.concurrent.TimeUnit;
 
 /**
- * Timekeeper thread that runs concurrently
- * with the player threads, as a daemon.
- * This thread will display the running time
- * of the game and it will stop the game
- * if it exceeds a certain time limit.
+ * Timekeeper of a game. It reports the running time
+ * of the game every minute and it ends the game as soon as
+ * the game or the clock of the current player runs out of time.
+ * The deadlines are scheduled on a shared {@link TimerWheel},
+ * so a time keeper does not need its own thread, and the game
+ * is ended and the minutes are reported by the execution model
+ * of the game (see {@link entities.execution.ExecutionModel#submit}),
+ * since the listeners may block.
  *
  * @author Ioan Sava
  */
 @Getter
-public class TimeKeeper extends Thread {
-    private int timeInMinutes;
+public class TimeKeeper {
+    private final Game game;
+    private final TimeControl timeControl;
 
-    public TimeKeeper(int time) throws InvalidTimeException {
-        setTimeInMinutes(time);
+    @Getter(AccessLevel.NONE)
+    private final TimerWheel timerWheel;
+
+    private volatile boolean expired;
+
+    /**
+     * Remaining time on the clock of each player, in nanoseconds
+     */
+    @Getter(AccessLevel.NONE)
+    private long[] remainingTime;
+
+    @Getter(AccessLevel.NONE)
+    private long turnStartTime;
+
+    /**
+     * The player whose clock is running, or -1
+     */
+    @Getter(AccessLevel.NONE)
+    private int runningClock = -1;
+
+    /**
+     * When the game clock was started, in System.nanoTime(),
+     * moved back by the time the game had run before it was restored
+     */
+    @Getter(AccessLevel.NONE)
+    private long startTime;
+
+    @Getter(AccessLevel.NONE)
+    private boolean started;
+
+    /**
+     * The time of a restored game (see {@link #restore}),
+     * used when its clocks are started
+     */
+    @Getter(AccessLevel.NONE)
+    private long restoredElapsedTime;
+
+    @Getter(AccessLevel.NONE)
+    private long[] restoredRemainingTimes;
+
+    @Getter(AccessLevel.NONE)
+    private int minutesPassed;
+
+    @Getter(AccessLevel.NONE)
+    private TimerWheel.Timeout gameTimeout;
+
+    @Getter(AccessLevel.NONE)
+    private TimerWheel.Timeout turnTimeout;
+
+    @Getter(AccessLevel.NONE)
+    private TimerWheel.Timeout minuteTimeout;
+
+    public TimeKeeper(Game game, TimeControl timeControl) {
+        this(game, timeControl, TimerWheel.shared());
+    }
+
+    public TimeKeeper(Game game, TimeControl timeControl, TimerWheel timerWheel) {
+        this.game = game;
+        this.timeControl = timeControl;
+        this.timerWheel = timerWheel;
+    }
+
+    /**
+     * Starts the game clock and the clock of the first player.
+     * A restored game continues from the times it was saved with.
+     */
+    public synchronized void start(int numberOfPlayers, int firstTurn) {
+        started = true;
+        startTime = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(restoredElapsedTime);
+        if (timeControl.getGameTime() > 0) {
+            gameTimeout = timerWheel.schedule(this::expire,
+                    Math.max(0, timeControl.getGameTime() - restoredElapsedTime), TimeUnit.MILLISECONDS);
+            minutesPassed = (int) TimeUnit.MILLISECONDS.toMinutes(restoredElapsedTime);
+            long sinceLastMinute = restoredElapsedTime % TimeUnit.MINUTES.toMillis(1);
+            if (sinceLastMinute == 0) {
+                reportMinute();
+            } else {
+                minuteTimeout = timerWheel.schedule(this::reportMinute,
+                        TimeUnit.MINUTES.toMillis(1) - sinceLastMinute, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (timeControl.getPlayerTime() > 0) {
+            remainingTime = new long[numberOfPlayers];
+            for (int player = 0; player < numberOfPlayers; ++player) {
+                remainingTime[player] = TimeUnit.MILLISECONDS.toNanos(restoredRemainingTimes == null ?
+                        timeControl.getPlayerTime() : restoredRemainingTimes[player]);
+            }
+            turnStarted(firstTurn);
+        }
     }
 
-    public void setTimeInMinutes(int time) throws InvalidTimeException {
-        if (time < 1) {
-            throw new InvalidTimeException("A time keeper should run for at least 1 minute");
+    /**
+     * Sets the times of a saved game, before it is started again
+     *
+     * @param elapsedTime    how long the game had run, in milliseconds
+     * @param remainingTimes the time left on the clock of each player,
+     *                       in milliseconds, or null if there were no clocks
+     */
+    public synchronized void restore(long elapsedTime, long[] remainingTimes) {
+        restoredElapsedTime = elapsedTime;
+        restoredRemainingTimes = remainingTimes;
+    }
+
+    /**
+     * How long the game has run, in milliseconds
+     */
+    public synchronized long getElapsedTime() {
+        return started ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) : restoredElapsedTime;
+    }
+
+    /**
+     * Starts the clock of a player.
+     */
+    public synchronized void turnStarted(int player) {
+        if (remainingTime != null && !expired) {
+            turnStartTime = System.nanoTime();
+            runningClock = player;
+            turnTimeout = timerWheel.schedule(this::expire, remainingTime[player], TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stops the clock of a player, who moved in time,
+     * and adds the increment to it.
+     */
+    public synchronized void turnEnded(int player) {
+        if (remainingTime != null && turnTimeout != null) {
+            turnTimeout.cancel();
+            turnTimeout = null;
+            runningClock = -1;
+            remainingTime[player] += TimeUnit.MILLISECONDS.toNanos(timeControl.getIncrement())
+                    - (System.nanoTime() - turnStartTime);
+        }
+    }
+
+    /**
+     * Remaining time on the clock of a player, in milliseconds,
+     * including the current turn if his clock is running
+     */
+    public synchronized long getRemainingTime(int player) {
+        if (remainingTime == null) {
+            return restoredRemainingTimes == null ? 0 : restoredRemainingTimes[player];
+        }
+        long remaining = remainingTime[player];
+        if (player == runningClock) {
+            remaining -= System.nanoTime() - turnStartTime;
         }
-        this.timeInMinutes = time;
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0, remaining));
     }
 
-    @Override
-    public void run() {
-        for (int i = 0; i < timeInMinutes; ++i) {
-            System.out.println(i + " minutes passed. " + (timeInMinutes - i) + " minutes remaining.");
-            try {
-                TimeUnit.MINUTES.sleep(1);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+    /**
+     * Cancels every pending deadline, when the game is over.
+     */
+    public synchronized void stop() {
+        for (TimerWheel.Timeout timeout : new TimerWheel.Timeout[]{gameTimeout, turnTimeout, minuteTimeout}) {
+            if (timeout != null) {
+                timeout.cancel();
             }
         }
-        System.out.println("Limit time exceeded. This game will be over soon");
+    }
+
+    private synchronized void reportMinute() {
+        if (expired) {
+            return;
+        }
+        long minutes = TimeUnit.MILLISECONDS.toMinutes(timeControl.getGameTime());
+        if (minutesPassed < minutes) {
+            int minutesPassed = this.minutesPassed++;
+            submit(() -> game.getListener().timeElapsed(game, minutesPassed, (int) (minutes - minutesPassed)));
+            minuteTimeout = timerWheel.schedule(this::reportMinute, 1, TimeUnit.MINUTES);
+        }
+    }
+
+    private void expire() {
+        synchronized (this) {
+            if (expired) {
+                return;
+            }
+            expired = true;
+            stop();
+        }
+        submit(game::timeExpired);
+    }
+
+    /**
+     * Runs a task of the game off the timer thread
+     */
+    private void submit(Runnable task) {
+        game.getExecutionModel().submit(game, task);
     }
 }
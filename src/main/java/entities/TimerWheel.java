@@ -0,0 +1,190 @@
+package entities;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel which handles the deadlines
+ * of every running game on a single daemon thread.
+ * The wheel is an array of buckets, one for each tick.
+ * A timeout is placed in the bucket of its deadline tick
+ * and also remembers how many turns of the wheel
+ * it must wait, so scheduling and cancelling are O(1)
+ * whatever the number of pending timeouts.
+ * <p>
+ * The tasks run on the timer thread, so they should be short.
+ *
+ * @author Ioan Sava
+ * @see <a href="http://www.cs.columbia.edu/~nahum/w6998/papers/sosp87-timing-wheels.pdf">Hashed and Hierarchical Timing Wheels</a>
+ */
+public class TimerWheel {
+    private static final int DEFAULT_WHEEL_SIZE = 1024;
+
+    private final long tickDuration;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final long startTime = System.nanoTime();
+    private long tick;
+
+    /**
+     * @param tickDuration the resolution of the timer
+     * @param unit         the unit of the tick duration
+     * @param wheelSize    number of buckets, rounded up to a power of two
+     */
+    public TimerWheel(long tickDuration, TimeUnit unit, int wheelSize) {
+        this.tickDuration = Math.max(1, unit.toNanos(tickDuration));
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        wheel = new Bucket[size];
+        for (int i = 0; i < size; ++i) {
+            wheel[i] = new Bucket();
+        }
+        mask = size - 1;
+
+        Thread worker = new Thread(this::run, "timer-wheel");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * The wheel with millisecond resolution shared by all the games
+     */
+    public static TimerWheel shared() {
+        return SharedWheel.INSTANCE;
+    }
+
+    private static class SharedWheel {
+        private static final TimerWheel INSTANCE = new TimerWheel(1, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Runs a task once, after the given delay.
+     * It may be called from any thread.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(task, System.nanoTime() - startTime + unit.toNanos(delay));
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    private void run() {
+        while (true) {
+            long deadline = waitForNextTick();
+            transferPendingTimeouts();
+            wheel[(int) (tick & mask)].expireTimeouts(deadline);
+            ++tick;
+        }
+    }
+
+    /**
+     * @return the deadline of the current tick, relative to the start time
+     */
+    private long waitForNextTick() {
+        long deadline = tickDuration * (tick + 1);
+        long sleepTime = deadline - (System.nanoTime() - startTime);
+        while (sleepTime > 0) {
+            LockSupport.parkNanos(this, sleepTime);
+            sleepTime = deadline - (System.nanoTime() - startTime);
+        }
+        return deadline;
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long deadlineTick = timeout.deadline / tickDuration;
+            timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+            // A timeout scheduled in the past expires on the current tick
+            wheel[(int) (Math.max(deadlineTick, tick) & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * A task scheduled on the wheel
+     */
+    public static class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+        private Timeout next;
+        private Timeout previous;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * The task will not run, unless it is already running.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Doubly linked list of the timeouts of one tick
+     */
+    private static class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        private Timeout remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.previous != null) {
+                timeout.previous.next = next;
+            }
+            if (next != null) {
+                next.previous = timeout.previous;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.previous;
+            }
+            timeout.next = timeout.previous = null;
+            return next;
+        }
+
+        void expireTimeouts(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                if (timeout.isCancelled()) {
+                    timeout = remove(timeout);
+                } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    Timeout next = remove(timeout);
+                    try {
+                        timeout.task.run();
+                    } catch (RuntimeException exception) {
+                        exception.printStackTrace();
+                    }
+                    timeout = next;
+                } else {
+                    --timeout.remainingRounds;
+                    timeout = timeout.next;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package entities.execution;
+
+import entities.games.Game;
+
+/**
+ * Decides on which threads the players
+ * of a game will make their moves.
+ *
+ * @author Ioan Sava
+ */
+public interface ExecutionModel {
+    /**
+     * Starts the players of a game whose first turn
+     * has already been chosen. It should not wait
+     * for the game to end.
+     */
+    void execute(Game game);
+
+    /**
+     * Runs a task of a game which may take a while, such as
+     * ending it when its time runs out, on a thread of this model,
+     * so that the timer thread (see {@link entities.TimerWheel})
+     * never waits for the listeners of the game.
+     * By default the task runs on a small pool shared by every game.
+     */
+    default void submit(Game game, Runnable task) {
+        GameTasks.EXECUTOR.execute(task);
+    }
+}
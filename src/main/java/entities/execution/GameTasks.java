@@ -0,0 +1,26 @@
+package entities.execution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the tasks submitted to an execution model
+ * (see {@link ExecutionModel#submit}) which has no threads
+ * of its own for them. Two daemon threads are shared by every game,
+ * so a task does not cost a thread and does not keep the application alive.
+ *
+ * @author Ioan Sava
+ */
+final class GameTasks {
+    private static final AtomicInteger NUMBER_OF_THREADS = new AtomicInteger();
+
+    static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "game-tasks-" + NUMBER_OF_THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private GameTasks() {
+    }
+}
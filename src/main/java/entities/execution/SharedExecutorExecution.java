@@ -0,0 +1,46 @@
+package entities.execution;
+
+import entities.games.Game;
+import entities.players.Player;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Multiplexes many games on a shared executor:
+ * every turn is a separate task, which is submitted
+ * only after the previous turn ended. No thread
+ * is blocked while a player waits for his turn,
+ * so a small pool can serve any number of live games.
+ *
+ * @author Ioan Sava
+ */
+public class SharedExecutorExecution implements ExecutionModel {
+    private final Executor executor;
+
+    public SharedExecutorExecution(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(Game game) {
+        scheduleTurn(game);
+    }
+
+    @Override
+    public void submit(Game game, Runnable task) {
+        executor.execute(task);
+    }
+
+    private void scheduleTurn(Game game) {
+        executor.execute(() -> {
+            int turn = game.getCurrentTurn();
+            if (turn == -1) {
+                return;
+            }
+
+            Player player = game.getListOfPlayers().get(turn);
+            player.playTurn();
+            scheduleTurn(game);
+        });
+    }
+}
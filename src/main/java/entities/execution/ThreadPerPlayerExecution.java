@@ -0,0 +1,57 @@
+package entities.execution;
+
+import entities.games.Game;
+import entities.players.Player;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Each player has his own thread, which waits
+ * for the player's turns (see {@link Player#run()}).
+ * The threads are created by a {@link ThreadFactory},
+ * so they may be platform threads or virtual threads.
+ * The other tasks of a game run on the pool shared by
+ * every game (see {@link ExecutionModel#submit}).
+ *
+ * @author Ioan Sava
+ */
+public class ThreadPerPlayerExecution implements ExecutionModel {
+    private final ThreadFactory threadFactory;
+
+    /**
+     * One platform thread for each player
+     */
+    public ThreadPerPlayerExecution() {
+        this(Thread::new);
+    }
+
+    public ThreadPerPlayerExecution(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * One virtual thread for each player. Virtual threads need Java 21,
+     * so platform threads are used on older runtimes.
+     */
+    public static ThreadPerPlayerExecution virtualThreads() {
+        return new ThreadPerPlayerExecution(virtualThreadFactory());
+    }
+
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException exception) {
+            return Thread::new;
+        }
+    }
+
+    @Override
+    public void execute(Game game) {
+        for (Player player : game.getListOfPlayers()) {
+            threadFactory.newThread(player).start();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package entities.execution;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntSupplier;
+
+/**
+ * Passes the turn from one player thread to the next one.
+ * Each seat of the game has its own parked thread,
+ * so a turn change wakes only the player whose turn it is,
+ * instead of every player waiting on the game monitor.
+ *
+ * @author Ioan Sava
+ */
+public class TurnHandoff {
+    /**
+     * The thread parked on each seat, if any
+     */
+    private final AtomicReferenceArray<Thread> waiters;
+
+    public TurnHandoff(int numberOfSeats) {
+        waiters = new AtomicReferenceArray<>(numberOfSeats);
+    }
+
+    /**
+     * Parks the calling thread until it is the turn
+     * of the given seat or until the game is over (turn -1).
+     * The turn must be stored in a volatile field and
+     * every change of it must be followed by a signal.
+     */
+    public void await(int seat, IntSupplier currentTurn) {
+        waiters.set(seat, Thread.currentThread());
+        int turn = currentTurn.getAsInt();
+        while (turn != seat && turn != -1) {
+            LockSupport.park(this);
+            // As with wait(), an interrupt does not end the wait for the turn
+            Thread.interrupted();
+            turn = currentTurn.getAsInt();
+        }
+    }
+
+    /**
+     * Wakes the thread parked on the given seat.
+     */
+    public void signal(int seat) {
+        Thread waiter = waiters.get(seat);
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * Wakes every parked thread, when the game is over.
+     */
+    public void signalAll() {
+        for (int seat = 0; seat < waiters.length(); ++seat) {
+            signal(seat);
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package entities.games;
 
 import entities.Board;
+import entities.TimeControl;
 import entities.tokens.ArithmeticProgressionToken;
 import entities.tokens.Token;
 import exceptions.InvalidDurationOfGameException;
 import exceptions.InvalidSizeOfArithmeticProgressionException;
 import exceptions.InvalidTimeException;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Arithmetic progression game
@@ -27,6 +29,21 @@ public class ArithmeticProgressionGame extends Game {
             InvalidDurationOfGameException, InvalidTimeException, InvalidSizeOfArithmeticProgressionException {
         super(board, durationOfTheGame);
         setSizeOfArithmeticProgression(sizeOfArithmeticProgression);
+        maximumValueOfToken = maximumValueOfToken(board);
+    }
+
+    public ArithmeticProgressionGame(Board board, TimeControl timeControl, int sizeOfArithmeticProgression) throws InvalidSizeOfArithmeticProgressionException {
+        super(board, timeControl);
+        setSizeOfArithmeticProgression(sizeOfArithmeticProgression);
+        maximumValueOfToken = maximumValueOfToken(board);
+    }
+
+    private static int maximumValueOfToken(Board board) {
+        int maximumValue = 0;
+        for (Token token : board.getTokens()) {
+            maximumValue = Math.max(maximumValue, ((ArithmeticProgressionToken) token).getValue());
+        }
+        return maximumValue;
     }
 
     private void setSizeOfArithmeticProgression(int sizeOfArithmeticProgression) throws
@@ -38,74 +55,69 @@ public class ArithmeticProgressionGame extends Game {
     }
 
     @Override
-    protected int getObjective() {
+    public int getObjective() {
         return sizeOfArithmeticProgression;
     }
 
-    protected void welcomeMessage() {
-        System.out.println("Welcome to Arithmetic progression game");
-        System.out.println("Your goal is to be the first to achieve" +
-                " an arithmetic progression of length " + sizeOfArithmeticProgression);
+    @Override
+    public Position getPosition(int turn) {
+        return new ArithmeticProgressionPosition(this, turn, maximumValueOfToken);
+    }
+
+    @Override
+    protected HandScorer createHandScorer() {
+        return new ArithmeticProgressionHandScorer(board);
+    }
+
+    @Override
+    public String getWelcomeMessage() {
+        return "Welcome to Arithmetic progression game\n" +
+                "Your goal is to be the first to achieve" +
+                " an arithmetic progression of length " + sizeOfArithmeticProgression;
     }
 
     /**
-     * Return the longest arithmetic progression size for
-     * a given list of integers using a Dynamic Programming approach.
+     * The longest arithmetic progression of each player,
+     * updated whenever a player takes a token.
      */
-    private int longestArithmeticProgression(List<Integer> numbers) {
-        if (numbers == null) {
-            return 0;
-        } else if (numbers.size() < 3) {
-            return numbers.size();
-        }
+    private final List<ArithmeticProgressionScorer> scorers = new ArrayList<>();
 
-        List<Map<Integer, Integer>> differences = new ArrayList<>();
-        int result = 2;
-        for (int i = 0; i < numbers.size(); ++i) {
-            differences.add(new HashMap<>());
-            for (int j = 0; j < i; ++j) {
-                int difference = numbers.get(i) - numbers.get(j);
-                differences.get(i).put(difference, differences.get(j).getOrDefault(difference, 1) + 1);
-                result = Math.max(result, differences.get(i).get(difference));
-            }
+    /**
+     * The largest value of a token on the board
+     */
+    private final int maximumValueOfToken;
+
+    private ArithmeticProgressionScorer scorerOfPlayer(int index) {
+        while (scorers.size() <= index) {
+            scorers.add(new ArithmeticProgressionScorer(maximumValueOfToken));
         }
+        return scorers.get(index);
+    }
 
-        return result;
+    @Override
+    protected void onTokenAdded(int index, Token token) {
+        scorerOfPlayer(index).add(((ArithmeticProgressionToken) token).getValue());
     }
 
-    /**
-     * Check if a list of tokens contains a blank token
-     * (a wildcard).
-     */
-    private boolean containsBlankToken(Set<Token> tokens) {
-        for (Token token : tokens) {
-            if (((ArithmeticProgressionToken) token).getValue() == 0) {
-                return true;
-            }
-        }
-        return false;
+    @Override
+    protected void onTokenRemoved(int index, Token token, int previousScore) {
+        scorerOfPlayer(index).undo(((ArithmeticProgressionToken) token).getValue(), previousScore);
     }
 
-    protected List<Integer> convertSetOfTokensToList(Set<Token> tokens) {
-        List<Integer> numbers = new ArrayList<>();
-        for (Token token : tokens) {
-            if (((ArithmeticProgressionToken) token).getValue() != 0) {
-                numbers.add(((ArithmeticProgressionToken) token).getValue());
-            }
+    @Override
+    protected void onHandRestored(int index, int score) {
+        ArithmeticProgressionScorer scorer = scorerOfPlayer(index);
+        for (Token token : playersTokens.get(index)) {
+            scorer.restore(((ArithmeticProgressionToken) token).getValue(), score);
         }
-        return numbers;
     }
 
     /**
      * A player receives a number of points equal
      * to the their largest arithmetic progression.
      */
+    @Override
     protected int computePlayerScore(int index) {
-        int bonus = 0;
-        if (containsBlankToken(playersTokens.get(index))) {
-            bonus = 1;
-        }
-
-        return bonus + longestArithmeticProgression(convertSetOfTokensToList(playersTokens.get(index)));
+        return scorerOfPlayer(index).score();
     }
 }
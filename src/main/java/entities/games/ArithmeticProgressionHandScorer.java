@@ -0,0 +1,81 @@
+package entities.games;
+
+import entities.Board;
+import entities.tokens.ArithmeticProgressionToken;
+import entities.tokens.PersistentBitSet;
+
+import java.util.Arrays;
+
+/**
+ * Scores the hands of an arithmetic progression game.
+ * A new value can only create progressions which contain it,
+ * so only those are measured, as in {@link ArithmeticProgressionScorer}.
+ *
+ * @author Ioan Sava
+ */
+class ArithmeticProgressionHandScorer implements HandScorer {
+    /**
+     * The value of each token, by id
+     */
+    private final int[] values;
+
+    /**
+     * The id of the token of each value, or -1
+     */
+    private final int[] idsOfValues;
+
+    ArithmeticProgressionHandScorer(Board board) {
+        values = new int[board.getNumberOfIds()];
+        int maximumValue = 0;
+        for (int id = 0; id < values.length; ++id) {
+            values[id] = ((ArithmeticProgressionToken) board.tokenOf(id)).getValue();
+            maximumValue = Math.max(maximumValue, values[id]);
+        }
+        idsOfValues = new int[maximumValue + 1];
+        Arrays.fill(idsOfValues, -1);
+        for (int id = 0; id < values.length; ++id) {
+            idsOfValues[values[id]] = id;
+        }
+    }
+
+    private static boolean contains(PersistentBitSet hand, int[] idsOfValues, long value) {
+        return value > 0 && value < idsOfValues.length && idsOfValues[(int) value] != -1 &&
+                hand.get(idsOfValues[(int) value]);
+    }
+
+    /**
+     * A blank token adds one point, any other token can only
+     * extend the longest progression with a progression through it.
+     */
+    @Override
+    public int scoreWith(PersistentBitSet hand, int token, int previousScore) {
+        int value = values[token];
+        if (value == 0) {
+            return previousScore + 1;
+        }
+
+        int result = 1;
+        for (int id = hand.nextSetBit(0); id != -1; id = hand.nextSetBit(id + 1)) {
+            long other = values[id];
+            if (other == 0) {
+                continue;
+            }
+            long difference = Math.abs(other - value);
+            if (other > value && contains(hand, idsOfValues, value - difference)) {
+                continue;
+            }
+
+            int length = 1;
+            for (long term = value - difference; contains(hand, idsOfValues, term); term -= difference) {
+                ++length;
+            }
+            for (long term = value + difference; contains(hand, idsOfValues, term); term += difference) {
+                ++length;
+            }
+            result = Math.max(result, length);
+        }
+
+        boolean blank = idsOfValues[0] != -1 && hand.get(idsOfValues[0]);
+        return Math.max(previousScore, (blank ? 1 : 0) + result);
+    }
+}
@@ -0,0 +1,95 @@
+package entities.games;
+
+import entities.Board;
+import entities.tokens.ArithmeticProgressionToken;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Position of an arithmetic progression game.
+ * The values of the tokens are shared by all the copies.
+ * A board whose values are symmetric around their middle
+ * is symmetric under the reflection v -> lowest + highest - v,
+ * which maps progressions onto progressions.
+ *
+ * @author Ioan Sava
+ */
+class ArithmeticProgressionPosition extends Position {
+    /**
+     * The value of each token, by id
+     */
+    private final int[] values;
+    private final ArithmeticProgressionScorer[] scorers;
+
+    ArithmeticProgressionPosition(ArithmeticProgressionGame game, int turn, int maximumValueOfToken) {
+        super(game, turn);
+        Board board = game.getBoard();
+        values = new int[board.getNumberOfIds()];
+        for (int id = 0; id < values.length; ++id) {
+            values[id] = ((ArithmeticProgressionToken) board.tokenOf(id)).getValue();
+        }
+        scorers = new ArithmeticProgressionScorer[getNumberOfPlayers()];
+        for (int player = 0; player < scorers.length; ++player) {
+            scorers[player] = new ArithmeticProgressionScorer(maximumValueOfToken);
+        }
+        takeHands(game);
+    }
+
+    private ArithmeticProgressionPosition(ArithmeticProgressionPosition other) {
+        super(other);
+        values = other.values;
+        scorers = new ArithmeticProgressionScorer[other.scorers.length];
+        for (int player = 0; player < scorers.length; ++player) {
+            scorers[player] = new ArithmeticProgressionScorer(other.scorers[player]);
+        }
+    }
+
+    @Override
+    public Position copy() {
+        return new ArithmeticProgressionPosition(this);
+    }
+
+    @Override
+    protected void take(int player, int token) {
+        scorers[player].add(values[token]);
+    }
+
+    @Override
+    protected void untake(int player, int token, int previousScore) {
+        scorers[player].undo(values[token], previousScore);
+    }
+
+    @Override
+    public int getScore(int player) {
+        return scorers[player].score();
+    }
+
+    @Override
+    public int[][] getSymmetries() {
+        int[][] identity = super.getSymmetries();
+        Map<Integer, Integer> idOfValue = new HashMap<>();
+        int lowest = Integer.MAX_VALUE;
+        int highest = 0;
+        for (int id = 0; id < values.length; ++id) {
+            if (idOfValue.put(values[id], id) != null) {
+                return identity;
+            }
+            // The blank token is its own image
+            if (values[id] > 0) {
+                lowest = Math.min(lowest, values[id]);
+                highest = Math.max(highest, values[id]);
+            }
+        }
+
+        int[] reflection = new int[values.length];
+        for (int id = 0; id < values.length; ++id) {
+            Integer image = values[id] == 0 ? Integer.valueOf(id) : idOfValue.get(lowest + highest - values[id]);
+            if (image == null) {
+                return identity;
+            }
+            reflection[id] = image;
+        }
+        return new int[][]{identity[0], reflection};
+    }
+}
@@ -0,0 +1,269 @@
+package entities.games;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the score of one player of the arithmetic progression game
+ * up to date while tokens are added to or removed from his hand.
+ * The hand is a bitset over the values [1, m], stored in a long[].
+ * <p>
+ * A new value can only create progressions which contain it,
+ * so only the progressions through the new value are measured.
+ * When a value is removed, the longest progression is computed again
+ * with word-parallel shifts and ANDs over each common difference.
+ * Apart from growing the bitset for values larger than m,
+ * nothing is allocated after the first removal.
+ *
+ * @author Ioan Sava
+ */
+class ArithmeticProgressionScorer {
+    private long[] words;
+    private long[] scratch;
+    private int numberOfValues;
+    private boolean blank;
+    private int longest;
+
+    /**
+     * @param maximumValue the largest value expected in the hand
+     */
+    ArithmeticProgressionScorer(int maximumValue) {
+        words = new long[(maximumValue >>> 6) + 1];
+    }
+
+    /**
+     * An independent copy of another scorer
+     */
+    ArithmeticProgressionScorer(ArithmeticProgressionScorer other) {
+        words = other.words.clone();
+        numberOfValues = other.numberOfValues;
+        blank = other.blank;
+        longest = other.longest;
+    }
+
+    private boolean contains(long value) {
+        return value > 0 && (value >>> 6) < words.length && (words[(int) (value >>> 6)] & 1L << value) != 0;
+    }
+
+    void add(int value) {
+        if (value == 0) {
+            blank = true;
+            return;
+        }
+        if (contains(value)) {
+            return;
+        }
+
+        longest = Math.max(longest, longestProgressionThrough(value));
+        if ((value >>> 6) >= words.length) {
+            words = Arrays.copyOf(words, Math.max((value >>> 6) + 1, 2 * words.length));
+        }
+        words[value >>> 6] |= 1L << value;
+        ++numberOfValues;
+    }
+
+    void remove(int value) {
+        if (value == 0) {
+            blank = false;
+            return;
+        }
+        if (!contains(value)) {
+            return;
+        }
+
+        words[value >>> 6] &= ~(1L << value);
+        --numberOfValues;
+        if (scratch == null || scratch.length != words.length) {
+            scratch = new long[words.length];
+        }
+        longest = longestProgression(words, numberOfValues, scratch);
+    }
+
+    /**
+     * Removes the value added last, when its score
+     * before the addition is already known.
+     */
+    void undo(int value, int previousScore) {
+        if (value == 0) {
+            blank = false;
+        } else if (contains(value)) {
+            words[value >>> 6] &= ~(1L << value);
+            --numberOfValues;
+            longest = previousScore - (blank ? 1 : 0);
+        }
+    }
+
+    /**
+     * Adds a value of a restored hand, when the score
+     * of the hand is already known, without measuring it.
+     */
+    void restore(int value, int score) {
+        if (value == 0) {
+            blank = true;
+        } else if (!contains(value)) {
+            if ((value >>> 6) >= words.length) {
+                words = Arrays.copyOf(words, Math.max((value >>> 6) + 1, 2 * words.length));
+            }
+            words[value >>> 6] |= 1L << value;
+            ++numberOfValues;
+        }
+        longest = score - (blank ? 1 : 0);
+    }
+
+    /**
+     * A blank token (a wildcard) adds one point
+     * to the longest arithmetic progression.
+     */
+    int score() {
+        return (blank ? 1 : 0) + longest;
+    }
+
+    /**
+     * Longest arithmetic progression of the hand
+     * which contains the given (new) value.
+     * Every difference is measured only once,
+     * starting from the closest term of its progression.
+     */
+    private int longestProgressionThrough(int value) {
+        int result = 1;
+        for (int w = 0; w < words.length; ++w) {
+            for (long word = words[w]; word != 0; word &= word - 1) {
+                long other = ((long) w << 6) + Long.numberOfTrailingZeros(word);
+                long difference = Math.abs(other - value);
+                if (other > value && contains(value - difference)) {
+                    continue;
+                }
+
+                int length = 1;
+                for (long term = value - difference; contains(term); term -= difference) {
+                    ++length;
+                }
+                for (long term = value + difference; contains(term); term += difference) {
+                    ++length;
+                }
+                result = Math.max(result, length);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Longest arithmetic progression of a set of positive values,
+     * given as a bitset.
+     * Sparse sets are measured term by term from every pair of values,
+     * while dense sets are measured with word-parallel operations:
+     * for a difference d, after t steps the bit p of the scratch
+     * bitset is set if p, p + d, ..., p + t * d are all in the set,
+     * so each step is one shifted AND of the scratch with itself.
+     *
+     * @param words          the set of values
+     * @param numberOfValues the number of values in the set
+     * @param scratch        a bitset of the same length, overwritten
+     */
+    static int longestProgression(long[] words, int numberOfValues, long[] scratch) {
+        if (numberOfValues < 3) {
+            return numberOfValues;
+        }
+
+        int lowest = -1;
+        int highest = -1;
+        for (int w = 0; w < words.length; ++w) {
+            if (words[w] != 0) {
+                if (lowest == -1) {
+                    lowest = (w << 6) + Long.numberOfTrailingZeros(words[w]);
+                }
+                highest = (w << 6) + 63 - Long.numberOfLeadingZeros(words[w]);
+            }
+        }
+
+        if ((long) numberOfValues * 8 < highest - lowest) {
+            return longestProgressionOfSparseSet(words, lowest, highest);
+        }
+
+        int result = 2;
+        // A progression longer than the result needs result * d <= highest - lowest
+        for (int difference = 1; (long) result * difference <= highest - lowest; ++difference) {
+            int lastWord = highest >>> 6;
+            System.arraycopy(words, 0, scratch, 0, lastWord + 1);
+            int length = 1;
+            while ((lastWord = shiftAnd(scratch, lowest >>> 6, lastWord, difference)) >= 0) {
+                ++length;
+            }
+            result = Math.max(result, length);
+        }
+        return result;
+    }
+
+    private static boolean contains(long[] words, long value) {
+        return value > 0 && (value >>> 6) < words.length && (words[(int) (value >>> 6)] & 1L << value) != 0;
+    }
+
+    /**
+     * Every progression is measured once, from its first two terms.
+     */
+    private static int longestProgressionOfSparseSet(long[] words, int lowest, int highest) {
+        int result = 2;
+        for (int first = lowest; first >= 0 && first <= highest; first = nextValue(words, first + 1)) {
+            for (int second = nextValue(words, first + 1); second >= 0; second = nextValue(words, second + 1)) {
+                long difference = second - first;
+                if ((long) first + result * difference > highest) {
+                    break;
+                }
+                if (contains(words, first - difference)) {
+                    continue;
+                }
+
+                int length = 2;
+                for (long term = second + difference; contains(words, term); term += difference) {
+                    ++length;
+                }
+                result = Math.max(result, length);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The smallest value of the set which is at least the given one, or -1
+     */
+    private static int nextValue(long[] words, int from) {
+        int w = from >>> 6;
+        if (w >= words.length) {
+            return -1;
+        }
+        long word = words[w] & (-1L << from);
+        while (word == 0) {
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * scratch = scratch AND (scratch >> shift), in place,
+     * for the words between firstWord and lastWord.
+     *
+     * @return the last word which is not empty, or -1
+     */
+    private static int shiftAnd(long[] scratch, int firstWord, int lastWord, int shift) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        int lastNonEmpty = -1;
+        for (int w = firstWord; w <= lastWord; ++w) {
+            int source = w + wordShift;
+            long shifted = 0;
+            if (source <= lastWord) {
+                shifted = scratch[source] >>> bitShift;
+                if (bitShift != 0 && source + 1 <= lastWord) {
+                    shifted |= scratch[source + 1] << (64 - bitShift);
+                }
+            }
+            scratch[w] &= shifted;
+            if (scratch[w] != 0) {
+                lastNonEmpty = w;
+            }
+        }
+        return lastNonEmpty;
+    }
+}
@@ -1,21 +1,16 @@
 package entities.games;
 
 import entities.Board;
+import entities.TimeControl;
 import entities.tokens.Token;
 import entities.tokens.clique_token.CliqueGameToken;
-import entities.tokens.clique_token.Node;
+import entities.tokens.clique_token.CliqueTokenSpace;
 import exceptions.InvalidCliqueSizeException;
 import exceptions.InvalidDurationOfGameException;
 import exceptions.InvalidTimeException;
-import org.jgrapht.Graph;
-import org.jgrapht.alg.BronKerboschCliqueFinder;
-import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.SimpleGraph;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 /**
  * The clique game is a positional game
@@ -36,14 +31,44 @@ public class CliqueGame extends Game {
 
     /**
      * Every player has his own graph
-     * formed with his tokens.
+     * formed with his tokens, together with
+     * the size of its largest clique.
      */
-    private List<Graph<Node, DefaultEdge>> graphs = new ArrayList<>();
+    private List<CliqueScorer> graphs = new ArrayList<>();
+
+    /**
+     * The nodes of the graph are labeled from 1 to numberOfNodes.
+     * It is the largest label of a node on the board.
+     */
+    private final int numberOfNodes;
 
     public CliqueGame(Board board, int durationOfTheGame, int sizeOfClique) throws
             InvalidDurationOfGameException, InvalidTimeException, InvalidCliqueSizeException {
         super(board, durationOfTheGame);
         setSizeOfClique(sizeOfClique);
+        numberOfNodes = numberOfNodes(board);
+    }
+
+    public CliqueGame(Board board, TimeControl timeControl, int sizeOfClique) throws InvalidCliqueSizeException {
+        super(board, timeControl);
+        setSizeOfClique(sizeOfClique);
+        numberOfNodes = numberOfNodes(board);
+    }
+
+    /**
+     * Read from the space of the board if it is a complete graph,
+     * without creating its edges
+     */
+    private static int numberOfNodes(Board board) {
+        if (board.getTokenSpace() instanceof CliqueTokenSpace) {
+            return ((CliqueTokenSpace) board.getTokenSpace()).getNumberOfNodes();
+        }
+        int numberOfNodes = 0;
+        for (Token token : board.getTokens()) {
+            numberOfNodes = Math.max(numberOfNodes, ((CliqueGameToken) token).getSecondNode().getLabel());
+            numberOfNodes = Math.max(numberOfNodes, ((CliqueGameToken) token).getFirstNode().getLabel());
+        }
+        return numberOfNodes;
     }
 
     private void setSizeOfClique(int sizeOfClique) throws InvalidCliqueSizeException {
@@ -54,35 +79,42 @@ public class CliqueGame extends Game {
     }
 
     @Override
-    protected void welcomeMessage() {
-        System.out.println("Welcome to Clique game");
-        System.out.println("Your goal is to be the first to achieve" +
-                " a clique of length " + sizeOfClique);
+    public String getWelcomeMessage() {
+        return "Welcome to Clique game\n" +
+                "Your goal is to be the first to achieve" +
+                " a clique of length " + sizeOfClique;
     }
 
-    private Token lastTokenOfPlayer(int index) {
-        Token token = null;
-        for (Token currentToken : playersTokens.get(index)) {
-            token = currentToken;
+    private CliqueScorer graphOfPlayer(int index) {
+        while (graphs.size() <= index) {
+            graphs.add(new CliqueScorer(numberOfNodes));
         }
-        return token;
+        return graphs.get(index);
     }
 
     /**
-     * Include the last token picked by the player
-     * to his graph.
+     * Include the token picked by the player to his graph.
      */
-    private void updatePlayerGraph(int index) {
-        while (graphs.size() <= index) {
-            graphs.add(new SimpleGraph<>(DefaultEdge.class));
-        }
+    @Override
+    protected void onTokenAdded(int index, Token token) {
+        CliqueGameToken edge = (CliqueGameToken) token;
+        graphOfPlayer(index).addEdge(edge.getFirstNode().getLabel() - 1, edge.getSecondNode().getLabel() - 1);
+    }
 
-        Token lastTokenPlayer = lastTokenOfPlayer(index);
-        Node firstNode = ((CliqueGameToken) lastTokenPlayer).getFirstNode();
-        Node secondNode = ((CliqueGameToken) lastTokenPlayer).getSecondNode();
-        graphs.get(index).addVertex(firstNode);
-        graphs.get(index).addVertex(secondNode);
-        graphs.get(index).addEdge(firstNode, secondNode);
+    @Override
+    protected void onTokenRemoved(int index, Token token, int previousScore) {
+        CliqueGameToken edge = (CliqueGameToken) token;
+        graphOfPlayer(index).undoEdge(edge.getFirstNode().getLabel() - 1, edge.getSecondNode().getLabel() - 1,
+                previousScore);
+    }
+
+    @Override
+    protected void onHandRestored(int index, int score) {
+        CliqueScorer graph = graphOfPlayer(index);
+        for (Token token : playersTokens.get(index)) {
+            CliqueGameToken edge = (CliqueGameToken) token;
+            graph.restoreEdge(edge.getFirstNode().getLabel() - 1, edge.getSecondNode().getLabel() - 1, score);
+        }
     }
 
     /**
@@ -91,14 +123,21 @@ public class CliqueGame extends Game {
      */
     @Override
     protected int computePlayerScore(int index) {
-        updatePlayerGraph(index);
-        BronKerboschCliqueFinder<Node, DefaultEdge> cliqueFinder = new BronKerboschCliqueFinder<>(graphs.get(index));
-        Collection<Set<Node>> cliques = cliqueFinder.getBiggestMaximalCliques();
-        return cliques.iterator().next().size();
+        return graphOfPlayer(index).score();
     }
 
     @Override
-    protected int getObjective() {
+    public int getObjective() {
         return sizeOfClique;
     }
+
+    @Override
+    public Position getPosition(int turn) {
+        return new CliquePosition(this, turn, numberOfNodes);
+    }
+
+    @Override
+    protected HandScorer createHandScorer() {
+        return new CliqueHandScorer(board, numberOfNodes);
+    }
 }
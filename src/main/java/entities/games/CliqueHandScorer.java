@@ -0,0 +1,78 @@
+package entities.games;
+
+import entities.Board;
+import entities.tokens.PersistentBitSet;
+import entities.tokens.clique_token.CliqueGameToken;
+
+import java.util.Arrays;
+
+/**
+ * Scores the hands of a clique game.
+ * A new clique must contain the new edge (u, v), so the largest
+ * clique is searched only among the common neighbours of u and v
+ * in the hand, with a {@link CliqueScorer} over those neighbours.
+ *
+ * @author Ioan Sava
+ */
+class CliqueHandScorer implements HandScorer {
+    private final int numberOfNodes;
+
+    /**
+     * The nodes of each edge, by id, counted from 0
+     */
+    private final int[] firstNodes;
+    private final int[] secondNodes;
+
+    /**
+     * The id of the edge (u, v) at u * numberOfNodes + v, or -1
+     */
+    private final int[] ids;
+
+    CliqueHandScorer(Board board, int numberOfNodes) {
+        this.numberOfNodes = numberOfNodes;
+        firstNodes = new int[board.getNumberOfIds()];
+        secondNodes = new int[board.getNumberOfIds()];
+        ids = new int[numberOfNodes * numberOfNodes];
+        Arrays.fill(ids, -1);
+        for (int id = 0; id < firstNodes.length; ++id) {
+            CliqueGameToken edge = (CliqueGameToken) board.tokenOf(id);
+            firstNodes[id] = edge.getFirstNode().getLabel() - 1;
+            secondNodes[id] = edge.getSecondNode().getLabel() - 1;
+            ids[firstNodes[id] * numberOfNodes + secondNodes[id]] = id;
+            ids[secondNodes[id] * numberOfNodes + firstNodes[id]] = id;
+        }
+    }
+
+    private boolean containsEdge(PersistentBitSet hand, int first, int second) {
+        int id = ids[first * numberOfNodes + second];
+        return id != -1 && hand.get(id);
+    }
+
+    @Override
+    public int scoreWith(PersistentBitSet hand, int token, int previousScore) {
+        int first = firstNodes[token];
+        int second = secondNodes[token];
+        int[] commonNeighbours = new int[numberOfNodes];
+        int numberOfCommonNeighbours = 0;
+        for (int node = 0; node < numberOfNodes; ++node) {
+            if (node != first && node != second &&
+                    containsEdge(hand, first, node) && containsEdge(hand, second, node)) {
+                commonNeighbours[numberOfCommonNeighbours++] = node;
+            }
+        }
+        if (numberOfCommonNeighbours + 2 <= previousScore) {
+            return previousScore;
+        }
+
+        CliqueScorer neighbourhood = new CliqueScorer(numberOfCommonNeighbours);
+        for (int i = 0; i < numberOfCommonNeighbours; ++i) {
+            for (int j = i + 1; j < numberOfCommonNeighbours; ++j) {
+                if (containsEdge(hand, commonNeighbours[i], commonNeighbours[j])) {
+                    neighbourhood.addEdge(i, j);
+                }
+            }
+        }
+        int largestClique = numberOfCommonNeighbours > 0 ? Math.max(1, neighbourhood.score()) : 0;
+        return Math.max(previousScore, 2 + largestClique);
+    }
+}
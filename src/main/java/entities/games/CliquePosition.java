@@ -0,0 +1,128 @@
+package entities.games;
+
+import entities.Board;
+import entities.tokens.clique_token.CliqueGameToken;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Position of a clique game.
+ * The edges of the tokens are shared by all the copies.
+ * The board of a complete graph is symmetric under every
+ * permutation of its nodes.
+ *
+ * @author Ioan Sava
+ */
+class CliquePosition extends Position {
+    /**
+     * The largest complete graph whose symmetries are listed, with 8! of them
+     */
+    private static final int MAXIMUM_NODES_FOR_SYMMETRIES = 8;
+
+    private final int numberOfNodes;
+    /**
+     * The nodes of each edge, by id, counted from 0
+     */
+    private final int[] firstNodes;
+    private final int[] secondNodes;
+    private final CliqueScorer[] graphs;
+
+    CliquePosition(CliqueGame game, int turn, int numberOfNodes) {
+        super(game, turn);
+        this.numberOfNodes = numberOfNodes;
+        Board board = game.getBoard();
+        firstNodes = new int[board.getNumberOfIds()];
+        secondNodes = new int[board.getNumberOfIds()];
+        for (int id = 0; id < firstNodes.length; ++id) {
+            CliqueGameToken edge = (CliqueGameToken) board.tokenOf(id);
+            firstNodes[id] = edge.getFirstNode().getLabel() - 1;
+            secondNodes[id] = edge.getSecondNode().getLabel() - 1;
+        }
+        graphs = new CliqueScorer[getNumberOfPlayers()];
+        for (int player = 0; player < graphs.length; ++player) {
+            graphs[player] = new CliqueScorer(numberOfNodes);
+        }
+        takeHands(game);
+    }
+
+    private CliquePosition(CliquePosition other) {
+        super(other);
+        numberOfNodes = other.numberOfNodes;
+        firstNodes = other.firstNodes;
+        secondNodes = other.secondNodes;
+        graphs = new CliqueScorer[other.graphs.length];
+        for (int player = 0; player < graphs.length; ++player) {
+            graphs[player] = new CliqueScorer(other.graphs[player]);
+        }
+    }
+
+    @Override
+    public Position copy() {
+        return new CliquePosition(this);
+    }
+
+    @Override
+    protected void take(int player, int token) {
+        graphs[player].addEdge(firstNodes[token], secondNodes[token]);
+    }
+
+    @Override
+    protected void untake(int player, int token, int previousScore) {
+        graphs[player].undoEdge(firstNodes[token], secondNodes[token], previousScore);
+    }
+
+    @Override
+    public int getScore(int player) {
+        return graphs[player].score();
+    }
+
+    @Override
+    public int[][] getSymmetries() {
+        if (numberOfNodes > MAXIMUM_NODES_FOR_SYMMETRIES ||
+                firstNodes.length != numberOfNodes * (numberOfNodes - 1) / 2) {
+            return super.getSymmetries();
+        }
+        int[][] edges = new int[numberOfNodes][numberOfNodes];
+        for (int id = 0; id < firstNodes.length; ++id) {
+            if (firstNodes[id] == secondNodes[id] || edges[firstNodes[id]][secondNodes[id]] != 0) {
+                return super.getSymmetries();
+            }
+            edges[firstNodes[id]][secondNodes[id]] = id + 1;
+            edges[secondNodes[id]][firstNodes[id]] = id + 1;
+        }
+
+        List<int[]> symmetries = new ArrayList<>();
+        int[] nodes = new int[numberOfNodes];
+        for (int node = 0; node < numberOfNodes; ++node) {
+            nodes[node] = node;
+        }
+        permute(nodes, 0, edges, symmetries);
+        return symmetries.toArray(new int[0][]);
+    }
+
+    /**
+     * Adds the symmetry of every permutation of the nodes from the given index on
+     */
+    private void permute(int[] nodes, int index, int[][] edges, List<int[]> symmetries) {
+        if (index == nodes.length) {
+            int[] symmetry = new int[firstNodes.length];
+            for (int id = 0; id < symmetry.length; ++id) {
+                symmetry[id] = edges[nodes[firstNodes[id]]][nodes[secondNodes[id]]] - 1;
+            }
+            symmetries.add(symmetry);
+            return;
+        }
+        for (int i = index; i < nodes.length; ++i) {
+            swap(nodes, index, i);
+            permute(nodes, index + 1, edges, symmetries);
+            swap(nodes, index, i);
+        }
+    }
+
+    private static void swap(int[] nodes, int first, int second) {
+        int node = nodes[first];
+        nodes[first] = nodes[second];
+        nodes[second] = node;
+    }
+}
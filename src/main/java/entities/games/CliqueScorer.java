@@ -0,0 +1,106 @@
+package entities.games;
+
+import entities.graphs.BitSetGraph;
+
+/**
+ * Keeps the score of one player of the clique game
+ * up to date while edges are added to his graph.
+ * A new clique must contain the new edge (u, v),
+ * so it is searched only among the common neighbours of u and v.
+ * The search works on sets of vertices stored as bitsets,
+ * one preallocated set for each level of the search.
+ *
+ * @author Ioan Sava
+ */
+class CliqueScorer {
+    private final BitSetGraph graph;
+
+    /**
+     * candidates[d] holds the candidates at depth d of the search
+     */
+    private long[][] candidates = new long[0][];
+    private int largestClique;
+
+    CliqueScorer(int numberOfVertices) {
+        graph = new BitSetGraph(numberOfVertices);
+    }
+
+    /**
+     * An independent copy of another scorer
+     */
+    CliqueScorer(CliqueScorer other) {
+        graph = new BitSetGraph(other.graph);
+        largestClique = other.largestClique;
+    }
+
+    void addEdge(int first, int second) {
+        if (graph.containsEdge(first, second)) {
+            return;
+        }
+        graph.addEdge(first, second);
+
+        long[] commonNeighbours = candidatesAtDepth(0);
+        graph.commonNeighbours(first, second, commonNeighbours);
+        int count = BitSetGraph.popcount(commonNeighbours);
+        largestClique = Math.max(largestClique, 2 + largestClique(0, count, 0, Math.max(0, largestClique - 2)));
+    }
+
+    /**
+     * Removes the edge added last, when its score
+     * before the addition is already known.
+     */
+    void undoEdge(int first, int second, int previousScore) {
+        graph.removeEdge(first, second);
+        largestClique = previousScore;
+    }
+
+    /**
+     * Adds an edge of a restored hand, when the score
+     * of the hand is already known, without any search.
+     */
+    void restoreEdge(int first, int second, int score) {
+        graph.addEdge(first, second);
+        largestClique = score;
+    }
+
+    int score() {
+        return largestClique;
+    }
+
+    private long[] candidatesAtDepth(int depth) {
+        if (depth >= candidates.length) {
+            long[][] newCandidates = new long[depth + 1][];
+            System.arraycopy(candidates, 0, newCandidates, 0, candidates.length);
+            for (int d = candidates.length; d <= depth; ++d) {
+                newCandidates[d] = graph.newVertexSet();
+            }
+            candidates = newCandidates;
+        }
+        return candidates[depth];
+    }
+
+    /**
+     * Branch and bound search of the largest clique formed
+     * by a clique of the given size and some of the candidates
+     * at the given depth, which are adjacent to every node of the clique.
+     * The candidates at that depth are consumed.
+     *
+     * @param best the size of the largest clique found so far
+     */
+    private int largestClique(int depth, int numberOfCandidates, int cliqueSize, int best) {
+        best = Math.max(best, cliqueSize);
+        long[] set = candidatesAtDepth(depth);
+        for (int w = 0; w < set.length; ++w) {
+            while (set[w] != 0 && cliqueSize + numberOfCandidates > best) {
+                int vertex = (w << 6) + Long.numberOfTrailingZeros(set[w]);
+                set[w] &= set[w] - 1;
+                --numberOfCandidates;
+
+                long[] next = candidatesAtDepth(depth + 1);
+                int count = graph.intersectNeighbours(set, vertex, next);
+                best = largestClique(depth + 1, count, cliqueSize + 1, best);
+            }
+        }
+        return best;
+    }
+}
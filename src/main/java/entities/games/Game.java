@@ -1,15 +1,28 @@
 package entities.games;
 
 import entities.Board;
+import entities.TimeControl;
 import entities.TimeKeeper;
+import entities.execution.ExecutionModel;
+import entities.execution.ThreadPerPlayerExecution;
+import entities.execution.TurnHandoff;
+import entities.listeners.ConsoleGameListener;
+import entities.listeners.GameListener;
+import entities.metrics.GameMetrics;
 import entities.players.Player;
 import entities.tokens.Token;
+import entities.tokens.TokenSet;
 import exceptions.InvalidDurationOfGameException;
 import exceptions.InvalidTimeException;
+import exceptions.InvalidTokenValueException;
+import exceptions.NotEnoughPlayersException;
 import exceptions.PlayerNotFoundException;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Generic type of positional game
@@ -23,13 +36,14 @@ public abstract class Game {
 
     /**
      * Duration of the game in minutes.
+     * The exact time limits are given by the time control.
      */
     protected int durationOfTheGame;
 
     /**
      * The order number of the player who will choose a token.
      */
-    protected int currentTurn;
+    protected volatile int currentTurn;
 
     /**
      * The list of players who joined the game
@@ -37,26 +51,107 @@ public abstract class Game {
     protected List<Player> listOfPlayers = new ArrayList<>();
 
     /**
-     * The list of the tokens held by each player
+     * The list of the tokens held by each player,
+     * as bitsets over the ids of the board
      */
-    protected List<Set<Token>> playersTokens = new ArrayList<>();
+    protected List<TokenSet> playersTokens = new ArrayList<>();
 
     /**
-     * This daemon thread will display the running time
+     * The moves made so far, which can be undone and redone
+     */
+    protected MoveLog moveLog = new MoveLog();
+
+    /**
+     * The time keeper will display the running time
      * of the game and it will stop the game if it exceeds a certain time limit
      */
     protected TimeKeeper timeKeeper;
 
+    /**
+     * Decides on which threads the players make their moves.
+     * By default, each player has his own platform thread.
+     */
+    protected ExecutionModel executionModel = new ThreadPerPlayerExecution();
+
+    /**
+     * Wakes only the player whose turn it is
+     */
+    private TurnHandoff turnHandoff;
+
+    /**
+     * Scores the hands of the states of the game,
+     * for the ids registered when it was created
+     */
+    private HandScorer handScorer;
+    @Getter(AccessLevel.NONE)
+    private int handScorerIds;
+
+    /**
+     * When the current turn was given, in System.nanoTime(),
+     * or 0 if the metrics are disabled (see {@link GameMetrics})
+     */
+    private volatile long turnStartTime;
+
+    @Getter(AccessLevel.NONE)
+    private long gameStartTime;
+
+    /**
+     * Number of moves made when the current turn was given
+     */
+    @Getter(AccessLevel.NONE)
+    private int movesAtTurnStart;
+
+    /**
+     * Receives the events of the game.
+     * By default, they are shown on the console.
+     */
+    protected GameListener listener = new ConsoleGameListener();
+
     public Game(Board board, int durationOfTheGame) throws
             InvalidDurationOfGameException, InvalidTimeException {
         this.board = board;
         setDurationOfTheGame(durationOfTheGame);
-        timeKeeper = new TimeKeeper(durationOfTheGame);
-        timeKeeper.setDaemon(true);
+        timeKeeper = new TimeKeeper(this, TimeControl.ofMinutes(durationOfTheGame));
+    }
+
+    public Game(Board board, TimeControl timeControl) {
+        this.board = board;
+        this.durationOfTheGame = (int) TimeUnit.MILLISECONDS.toMinutes(timeControl.getGameTime());
+        timeKeeper = new TimeKeeper(this, timeControl);
     }
 
     private void setCurrentTurn(int currentTurn) {
+        if (currentTurn == -1) {
+            GameMetrics.recordGame(this, gameStartTime);
+            gameStartTime = 0;
+        } else {
+            turnStartTime = GameMetrics.now();
+            movesAtTurnStart = moveLog.size();
+        }
         this.currentTurn = currentTurn;
+        if (turnHandoff != null) {
+            if (currentTurn == -1) {
+                turnHandoff.signalAll();
+            } else {
+                turnHandoff.signal(currentTurn);
+            }
+        }
+    }
+
+    /**
+     * Blocks the calling player thread until it is
+     * the turn of the given player or the game is over.
+     */
+    public void awaitTurn(int playerIndex) {
+        turnHandoff.await(playerIndex, this::getCurrentTurn);
+    }
+
+    public void setExecutionModel(ExecutionModel executionModel) {
+        this.executionModel = executionModel;
+    }
+
+    public void setListener(GameListener listener) {
+        this.listener = listener;
     }
 
     private void setDurationOfTheGame(int durationOfTheGame) throws InvalidDurationOfGameException {
@@ -72,7 +167,7 @@ public abstract class Game {
             if (!listOfPlayers.contains(player)) {
                 listOfPlayers.add(player);
                 player.setGame(this);
-                playersTokens.add(new TreeSet<>());
+                playersTokens.add(new TokenSet(board.getTokenSpace()));
             }
         }
     }
@@ -87,47 +182,210 @@ public abstract class Game {
     }
 
     public void addTokenToPlayer(Player player, Token token) {
-        int indexOfPlayer = listOfPlayers.indexOf(player);
-        playersTokens.get(indexOfPlayer).add(token);
+        addTokenToPlayer(listOfPlayers.indexOf(player), token);
     }
 
-    abstract protected void welcomeMessage();
+    private void addTokenToPlayer(int index, Token token) {
+        if (playersTokens.get(index).add(token)) {
+            onTokenAdded(index, token);
+        }
+    }
+
+    /**
+     * Called after a token was added to the hand of a player,
+     * so that the game can update the score of the player.
+     */
+    protected void onTokenAdded(int index, Token token) {
+    }
+
+    /**
+     * Called after the last token taken by a player was
+     * given back to the board, when his move is undone.
+     *
+     * @param previousScore the score of the player before he took the token
+     */
+    protected void onTokenRemoved(int index, Token token, int previousScore) {
+    }
+
+    /**
+     * Moves a token from the board to the hand of a player.
+     * Nothing happens if the game is already over,
+     * for instance if the time ran out while the player was thinking.
+     *
+     * @return true if the token was taken
+     */
+    public synchronized boolean takeToken(Player player, Token token) {
+        if (getCurrentTurn() == -1) {
+            return false;
+        }
+        makeMove(listOfPlayers.indexOf(player), token);
+        return true;
+    }
+
+    /**
+     * Moves a token from the board to the hand of a player
+     * and records the move, without changing the current turn
+     * or sending any event. Together with {@link #undo()},
+     * it lets search players explore the game in place.
+     */
+    public synchronized void makeMove(int index, Token token) {
+        moveLog.record(index, board.idOf(token), computePlayerScore(index));
+        board.removeToken(token);
+        // The score is updated when the token is added, so this is what the metrics measure
+        long start = GameMetrics.now();
+        addTokenToPlayer(index, token);
+        GameMetrics.recordScoring(this, start);
+    }
 
     /**
-     * Each player has his own thread
+     * The token taken by the last move, or null if no move was made
      */
-    private void createThreadsForPlayers() {
-        for (Player player : listOfPlayers) {
-            new Thread(player).start();
+    public Token getLastToken() {
+        return moveLog.canUndo() ? board.tokenOf(moveLog.lastToken()) : null;
+    }
+
+    /**
+     * Gives the token of the last move back to the board
+     * and restores the hand and the score of the player who took it.
+     * Neither the current turn nor the listener is affected,
+     * so it is meant for search and replay tools, during the turn
+     * of the searching player or while nobody is playing the game.
+     *
+     * @return false if there is no move to undo
+     */
+    public synchronized boolean undo() {
+        if (!moveLog.canUndo()) {
+            return false;
         }
+
+        int move = moveLog.size() - 1;
+        int player = moveLog.getPlayer(move);
+        Token token = board.tokenOf(moveLog.getToken(move));
+        moveLog.undo();
+        playersTokens.get(player).remove(token);
+        board.addTokens(token);
+        onTokenRemoved(player, token, moveLog.getPreviousScore(move));
+        return true;
     }
 
-    private void playerTurnMessage(int turn) {
-        System.out.println("---------------------------------------------------------------");
-        System.out.println(listOfPlayers.get(turn).getName() + "'s turn");
-        System.out.println(getBoard());
-        if (getPlayersTokens().size() > turn) {
-            System.out.println("Your tokens: " + getPlayersTokens().get(turn));
+    /**
+     * Makes again the last undone move.
+     *
+     * @return false if there is no move to redo
+     */
+    public synchronized boolean redo() {
+        if (!moveLog.canRedo()) {
+            return false;
         }
+
+        moveLog.redo();
+        Token token = board.tokenOf(moveLog.lastToken());
+        board.removeToken(token);
+        addTokenToPlayer(moveLog.lastPlayer(), token);
+        return true;
     }
 
+    /**
+     * Whether the player to move has already taken his token,
+     * while his turn is not passed yet
+     */
+    public synchronized boolean isTurnPlayed() {
+        return currentTurn != -1 && moveLog.size() > movesAtTurnStart;
+    }
+
+    /**
+     * Puts back a move of a saved game (see {@link entities.journal.GameSnapshot}),
+     * without computing any score: the scores are given at the end
+     * by {@link #restoreState}. The game should not be started yet.
+     *
+     * @param token         the id of the token on the board
+     * @param previousScore the score of the player before the move
+     */
+    public synchronized void restoreMove(int index, int token, int previousScore) {
+        moveLog.record(index, token, previousScore);
+        board.removeToken(board.tokenOf(token));
+        playersTokens.get(index).addId(token);
+    }
+
+    /**
+     * Sets the turn and the scores of a saved game
+     * after its moves were put back by {@link #restoreMove}.
+     * The game continues from this turn when it is resumed;
+     * if the player to move had already taken his token,
+     * his turn is passed as soon as the game resumes.
+     *
+     * @param turnPlayed the player to move had already taken his token
+     */
+    public synchronized void restoreState(int currentTurn, boolean turnPlayed, int[] scores) {
+        this.currentTurn = currentTurn;
+        movesAtTurnStart = moveLog.size() - (turnPlayed ? 1 : 0);
+        for (int index = 0; index < scores.length; ++index) {
+            onHandRestored(index, scores[index]);
+        }
+    }
+
+    /**
+     * Called when the hand of a player was restored, so that
+     * the game can set the score of the player without computing it.
+     */
+    protected void onHandRestored(int index, int score) {
+    }
+
+    /**
+     * The rules of the game, shown when the game starts
+     */
+    public abstract String getWelcomeMessage();
+
     abstract protected int computePlayerScore(int index);
 
     /**
-     * Shows the score of each player.
+     * The current score of a player
      */
-    protected void showRanking() {
-        System.out.println("Scores: ");
-        for (int i = 0; i < listOfPlayers.size(); ++i) {
-            int playerScore = computePlayerScore(i);
-            System.out.println(listOfPlayers.get(i).getName() + ": " + playerScore + " points");
+    public int getScore(int index) {
+        return computePlayerScore(index);
+    }
+
+    /**
+     * The current score of each player.
+     */
+    protected int[] computeScores() {
+        int[] scores = new int[listOfPlayers.size()];
+        for (int i = 0; i < scores.length; ++i) {
+            scores[i] = computePlayerScore(i);
         }
+        return scores;
     }
 
     /**
      * Objective of the game
      */
-    protected abstract int getObjective();
+    public abstract int getObjective();
+
+    /**
+     * A new scorer of hands given as bitsets,
+     * for the tokens registered on the board
+     */
+    protected abstract HandScorer createHandScorer();
+
+    /**
+     * The scorer of hands given as bitsets, for {@link GameState}.
+     * It is created again if new tokens were registered.
+     */
+    public synchronized HandScorer getHandScorer() {
+        if (handScorer == null || handScorerIds != board.getNumberOfIds()) {
+            handScorer = createHandScorer();
+            handScorerIds = board.getNumberOfIds();
+        }
+        return handScorer;
+    }
+
+    /**
+     * A copy of the current state of the game, for search players.
+     * The game should not change while the copy is made.
+     *
+     * @param turn the player who will take the next token
+     */
+    public abstract Position getPosition(int turn);
 
     /**
      * The game ends when either a player achieves the game objective
@@ -138,19 +396,15 @@ public abstract class Game {
      * false, otherwise
      */
     protected boolean gameOver() {
-        if (board.getTokens().size() == 0 || !timeKeeper.isAlive()) {
-            System.out.println("---------------------------------------------------------------");
-            System.out.println("Game over");
-            showRanking();
+        Player player = listOfPlayers.get(getCurrentTurn());
+        int playerScore = computePlayerScore(getCurrentTurn());
+        listener.scoreChanged(this, player, playerScore);
+        if (playerScore >= getObjective()) {
+            listener.gameOver(this, player, computeScores());
+            return true;
+        } else if (board.getNumberOfTokens() == 0 || timeKeeper.isExpired()) {
+            listener.gameOver(this, null, computeScores());
             return true;
-        } else {
-            int playerScore = computePlayerScore(getCurrentTurn());
-            if (playerScore >= getObjective()) {
-                System.out.println("---------------------------------------------------------------");
-                System.out.println(listOfPlayers.get(getCurrentTurn()).getName() + " won");
-                System.out.println("Game has ended");
-                return true;
-            }
         }
         return false;
     }
@@ -160,13 +414,34 @@ public abstract class Game {
      * the next player will have the turn.
      * Otherwise, no player can make any move.
      */
-    public void update() {
+    public synchronized void update() {
+        if (getCurrentTurn() == -1) {
+            return;
+        }
+
+        timeKeeper.turnEnded(getCurrentTurn());
         if (gameOver()) {
+            timeKeeper.stop();
             setCurrentTurn(-1);
         } else {
             int nextTurn = (getCurrentTurn() + 1) % getListOfPlayers().size();
+            // The next player may move as soon as he gets the turn
+            listener.turnStarted(this, listOfPlayers.get(nextTurn));
+            timeKeeper.turnStarted(nextTurn);
             setCurrentTurn(nextTurn);
-            playerTurnMessage(getCurrentTurn());
+        }
+    }
+
+    /**
+     * Called by the time keeper when the game
+     * or the current player runs out of time.
+     * The game ends immediately.
+     */
+    public synchronized void timeExpired() {
+        if (getCurrentTurn() != -1) {
+            listener.timeLimitExceeded(this);
+            listener.gameOver(this, null, computeScores());
+            setCurrentTurn(-1);
         }
     }
 
@@ -175,27 +450,94 @@ public abstract class Game {
      * the first move is chosen at random
      */
     private int generateRandomTurn() {
-        Random random = new Random();
-        return random.nextInt(listOfPlayers.size());
+        return ThreadLocalRandom.current().nextInt(listOfPlayers.size());
     }
 
     /**
      * In order to start, the game needs at least two players.
      * A few settings are required before the game starts:
      * 1. which player will have the first turn
-     * 2. threads for each player
-     * 3. messages regarding rules
-     * 4. start timeKeeper
+     * 2. messages regarding rules
+     * 3. start timeKeeper
+     * 4. threads for the players, according to the execution model
      */
     public void start() {
         if (listOfPlayers.size() >= 2) {
-            welcomeMessage();
-            setCurrentTurn(generateRandomTurn());
-            playerTurnMessage(getCurrentTurn());
-            createThreadsForPlayers();
-            timeKeeper.start();
+            begin(generateRandomTurn(), false);
+        } else {
+            System.out.println("The game needs at least two players in order to start");
+        }
+    }
+
+    /**
+     * Starts a restored game (see {@link #restoreState}) from
+     * the turn it was saved at, with the times it was saved with.
+     * Nothing happens if the game was already over.
+     */
+    public void resume() {
+        if (getCurrentTurn() == -1) {
+            return;
+        }
+        if (listOfPlayers.size() >= 2) {
+            begin(getCurrentTurn(), isTurnPlayed());
         } else {
             System.out.println("The game needs at least two players in order to start");
         }
     }
+
+    private void begin(int firstTurn, boolean turnPlayed) {
+        gameStartTime = GameMetrics.now();
+        turnHandoff = new TurnHandoff(listOfPlayers.size());
+        setCurrentTurn(firstTurn);
+        listener.gameStarted(this);
+        if (turnPlayed) {
+            timeKeeper.start(listOfPlayers.size(), firstTurn);
+            update();
+        } else {
+            listener.turnStarted(this, listOfPlayers.get(firstTurn));
+            timeKeeper.start(listOfPlayers.size(), firstTurn);
+        }
+        executionModel.execute(this);
+    }
+
+    /**
+     * Plays the whole game on the calling thread.
+     * No thread is created for the players and
+     * the time keeper is not started, so only
+     * non-interactive players should join the game.
+     * The events are still sent to the listener, so a
+     * {@link entities.listeners.SilentGameListener} should be used
+     * when nothing has to be shown.
+     *
+     * @return the winner (if any) and the final score of each player
+     * @throws NotEnoughPlayersException if the game has less than two players
+     * @throws InvalidTokenValueException if a player chose an invalid token
+     */
+    public GameResult simulate() throws NotEnoughPlayersException, InvalidTokenValueException {
+        if (listOfPlayers.size() < 2) {
+            throw new NotEnoughPlayersException();
+        }
+
+        gameStartTime = GameMetrics.now();
+        setCurrentTurn(generateRandomTurn());
+        listener.gameStarted(this);
+        int winner = -1;
+        while (board.getNumberOfTokens() > 0) {
+            Player player = listOfPlayers.get(getCurrentTurn());
+            listener.turnStarted(this, player);
+            player.extractTokenFromBoard();
+            int playerScore = computePlayerScore(getCurrentTurn());
+            listener.scoreChanged(this, player, playerScore);
+            if (playerScore >= getObjective()) {
+                winner = getCurrentTurn();
+                break;
+            }
+            setCurrentTurn((getCurrentTurn() + 1) % listOfPlayers.size());
+        }
+
+        int[] scores = computeScores();
+        setCurrentTurn(-1);
+        listener.gameOver(this, winner == -1 ? null : listOfPlayers.get(winner), scores);
+        return new GameResult(winner, scores);
+    }
 }
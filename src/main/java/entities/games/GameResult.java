@@ -0,0 +1,28 @@
+package entities.games;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a finished game.
+ *
+ * @author Ioan Sava
+ */
+@Getter
+@AllArgsConstructor
+public class GameResult {
+    /**
+     * The order number of the player who achieved
+     * the objective of the game or -1 if nobody did.
+     */
+    private final int winner;
+
+    /**
+     * The final score of each player
+     */
+    private final int[] scores;
+
+    public boolean isDraw() {
+        return winner == -1;
+    }
+}
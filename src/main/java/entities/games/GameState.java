@@ -0,0 +1,144 @@
+package entities.games;
+
+import entities.Board;
+import entities.tokens.PersistentBitSet;
+import entities.tokens.Token;
+import entities.tokens.TokenSet;
+
+/**
+ * Immutable snapshot of a game: the tokens on the board,
+ * the hand and the score of every player, and the player to move.
+ * Playing a token returns a new state, which shares with this one
+ * everything but the paths to the changed bits of the board and of
+ * one hand (see {@link PersistentBitSet}), so many positions of
+ * a game can be branched and kept at a small cost.
+ * The tokens are known by their ids on the board (see {@link Board#idOf}).
+ *
+ * @author Ioan Sava
+ */
+public final class GameState {
+    private final HandScorer handScorer;
+    private final int objective;
+    private final PersistentBitSet board;
+    private final PersistentBitSet[] hands;
+    private final int[] scores;
+    private final int turn;
+    private final int winner;
+
+    private GameState(HandScorer handScorer, int objective, PersistentBitSet board, PersistentBitSet[] hands,
+                      int[] scores, int turn, int winner) {
+        this.handScorer = handScorer;
+        this.objective = objective;
+        this.board = board;
+        this.hands = hands;
+        this.scores = scores;
+        this.turn = turn;
+        this.winner = winner;
+    }
+
+    /**
+     * A snapshot of the current state of a game
+     *
+     * @param turn the player who will take the next token
+     */
+    public static GameState of(Game game, int turn) {
+        synchronized (game) {
+            Board board = game.getBoard();
+            int capacity = board.getNumberOfIds();
+            long[] words = new long[(capacity + 63) >>> 6];
+            for (int id = 0; id < capacity; ++id) {
+                if (board.containsId(id)) {
+                    words[id >>> 6] |= 1L << id;
+                }
+            }
+
+            int numberOfPlayers = game.getListOfPlayers().size();
+            PersistentBitSet[] hands = new PersistentBitSet[numberOfPlayers];
+            int[] scores = new int[numberOfPlayers];
+            int winner = -1;
+            for (int player = 0; player < numberOfPlayers; ++player) {
+                TokenSet hand = game.getPlayersTokens().get(player);
+                long[] handWords = new long[words.length];
+                for (int id = hand.nextId(0); id != -1 && id < capacity; id = hand.nextId(id + 1)) {
+                    handWords[id >>> 6] |= 1L << id;
+                }
+                hands[player] = PersistentBitSet.of(handWords, capacity);
+                scores[player] = game.getScore(player);
+                if (scores[player] >= game.getObjective()) {
+                    winner = player;
+                }
+            }
+            return new GameState(game.getHandScorer(), game.getObjective(), PersistentBitSet.of(words, capacity),
+                    hands, scores, turn, winner);
+        }
+    }
+
+    /**
+     * The state after the player to move takes the given token
+     *
+     * @param token the id of a token on the board
+     */
+    public GameState play(int token) {
+        if (isOver()) {
+            throw new IllegalStateException("The game is over");
+        }
+        if (!board.get(token)) {
+            throw new IllegalArgumentException("The token " + token + " is not on the board");
+        }
+
+        PersistentBitSet[] newHands = hands.clone();
+        newHands[turn] = hands[turn].with(token);
+        int[] newScores = scores.clone();
+        newScores[turn] = handScorer.scoreWith(hands[turn], token, scores[turn]);
+        return new GameState(handScorer, objective, board.without(token), newHands, newScores,
+                (turn + 1) % hands.length, newScores[turn] >= objective ? turn : -1);
+    }
+
+    /**
+     * The state after the player to move takes the given token of the game
+     */
+    public GameState play(Game game, Token token) {
+        return play(game.getBoard().idOf(token));
+    }
+
+    public int getTurn() {
+        return turn;
+    }
+
+    public int getNumberOfPlayers() {
+        return hands.length;
+    }
+
+    /**
+     * The player who achieved the objective, or -1
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    public boolean isOver() {
+        return winner != -1 || board.isEmpty();
+    }
+
+    public int getScore(int player) {
+        return scores[player];
+    }
+
+    /**
+     * The ids of the tokens on the board
+     */
+    public PersistentBitSet getBoard() {
+        return board;
+    }
+
+    /**
+     * The ids of the tokens held by a player
+     */
+    public PersistentBitSet getHand(int player) {
+        return hands[player];
+    }
+
+    public int getNumberOfTokens() {
+        return board.size();
+    }
+}
@@ -0,0 +1,22 @@
+package entities.games;
+
+import entities.tokens.PersistentBitSet;
+
+/**
+ * Scores the hands of a game given as bitsets over
+ * the ids of the tokens, for {@link GameState}.
+ * It must not change after it was created,
+ * since it is shared by every state of a game.
+ *
+ * @author Ioan Sava
+ */
+public interface HandScorer {
+    /**
+     * The score of a hand after it receives a new token
+     *
+     * @param hand          the hand, without the token
+     * @param token         the id of the new token
+     * @param previousScore the score of the hand
+     */
+    int scoreWith(PersistentBitSet hand, int token, int previousScore);
+}
@@ -0,0 +1,91 @@
+package entities.games;
+
+import java.util.Arrays;
+
+/**
+ * History of the moves of a game, stored in primitive arrays.
+ * A move is the order number of the player and the id
+ * of the token he took (see {@link entities.Board#idOf}).
+ * The score of the player before the move is also kept,
+ * so that undoing a move does not need to compute any score.
+ * Undone moves are kept until a new move is recorded,
+ * so they can be redone.
+ *
+ * @author Ioan Sava
+ */
+public class MoveLog {
+    private int[] players = new int[16];
+    private int[] tokens = new int[16];
+    private int[] previousScores = new int[16];
+
+    /**
+     * Number of moves which are currently applied
+     */
+    private int size;
+
+    /**
+     * Number of recorded moves, including the undone ones
+     */
+    private int recorded;
+
+    void record(int player, int token, int previousScore) {
+        if (size == players.length) {
+            players = Arrays.copyOf(players, 2 * size);
+            tokens = Arrays.copyOf(tokens, 2 * size);
+            previousScores = Arrays.copyOf(previousScores, 2 * size);
+        }
+        players[size] = player;
+        tokens[size] = token;
+        previousScores[size] = previousScore;
+        recorded = ++size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean canUndo() {
+        return size > 0;
+    }
+
+    public boolean canRedo() {
+        return size < recorded;
+    }
+
+    void undo() {
+        --size;
+    }
+
+    void redo() {
+        ++size;
+    }
+
+    public int getPlayer(int move) {
+        return players[move];
+    }
+
+    public int getToken(int move) {
+        return tokens[move];
+    }
+
+    /**
+     * The score of the player of a move before he made it
+     */
+    public int getPreviousScore(int move) {
+        return previousScores[move];
+    }
+
+    /**
+     * The player who made the last applied move, or -1
+     */
+    public int lastPlayer() {
+        return size == 0 ? -1 : players[size - 1];
+    }
+
+    /**
+     * The id of the token taken by the last applied move, or -1
+     */
+    public int lastToken() {
+        return size == 0 ? -1 : tokens[size - 1];
+    }
+}
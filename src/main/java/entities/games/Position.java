@@ -0,0 +1,260 @@
+package entities.games;
+
+import entities.Board;
+import entities.tokens.Token;
+import entities.tokens.TokenSet;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A lightweight copy of the state of a game, which search players
+ * can change and copy without touching the game itself.
+ * The tokens are known by their ids on the board
+ * (see {@link Board#idOf(Token)}) and the tokens left on the board
+ * are kept in a dense array, so that a random token can be
+ * picked and removed in constant time.
+ * The scores are updated incrementally, as in the game.
+ *
+ * @author Ioan Sava
+ */
+public abstract class Position {
+    private final int numberOfPlayers;
+    private final int objective;
+
+    /**
+     * The ids of the tokens left on the board
+     */
+    private final int[] available;
+
+    /**
+     * The index of each token in available, or -1 if it was taken
+     */
+    private final int[] indexOfToken;
+    private int numberOfAvailableTokens;
+
+    /**
+     * The tokens taken by play, with the score
+     * of the player before he took them
+     */
+    private final int[] playedTokens;
+    private final int[] previousScores;
+    private int numberOfPlayedTokens;
+
+    /**
+     * The scores before each token taken by canStillWin
+     */
+    private final int[] scoresBeforeTaking;
+
+    private int turn;
+    private int winner = -1;
+
+    /**
+     * The position of a game, before the hands of the players
+     * are added with {@link #take(int, int)}.
+     *
+     * @param turn the player who will take the next token
+     */
+    protected Position(Game game, int turn) {
+        Board board = game.getBoard();
+        numberOfPlayers = game.getListOfPlayers().size();
+        objective = game.getObjective();
+        this.turn = turn;
+
+        available = new int[board.getTokens().size()];
+        indexOfToken = new int[board.getNumberOfIds()];
+        Arrays.fill(indexOfToken, -1);
+        for (int id = 0; id < indexOfToken.length; ++id) {
+            if (board.containsId(id)) {
+                indexOfToken[id] = numberOfAvailableTokens;
+                available[numberOfAvailableTokens++] = id;
+            }
+        }
+        playedTokens = new int[numberOfAvailableTokens];
+        previousScores = new int[numberOfAvailableTokens];
+        scoresBeforeTaking = new int[numberOfAvailableTokens];
+    }
+
+    protected Position(Position other) {
+        numberOfPlayers = other.numberOfPlayers;
+        objective = other.objective;
+        available = other.available.clone();
+        indexOfToken = other.indexOfToken.clone();
+        numberOfAvailableTokens = other.numberOfAvailableTokens;
+        playedTokens = other.playedTokens.clone();
+        previousScores = other.previousScores.clone();
+        numberOfPlayedTokens = other.numberOfPlayedTokens;
+        scoresBeforeTaking = new int[other.scoresBeforeTaking.length];
+        turn = other.turn;
+        winner = other.winner;
+    }
+
+    /**
+     * An independent copy of this position
+     */
+    public abstract Position copy();
+
+    /**
+     * Adds a token to the hand of a player and updates his score.
+     */
+    protected abstract void take(int player, int token);
+
+    /**
+     * Removes the token taken last by a player
+     * and restores his previous score.
+     */
+    protected abstract void untake(int player, int token, int previousScore);
+
+    public abstract int getScore(int player);
+
+    /**
+     * Adds the tokens held by each player in the game,
+     * when the position is created.
+     */
+    protected void takeHands(Game game) {
+        for (int player = 0; player < numberOfPlayers; ++player) {
+            TokenSet hand = game.getPlayersTokens().get(player);
+            for (int token = hand.nextId(0); token != -1; token = hand.nextId(token + 1)) {
+                take(player, token);
+            }
+            if (getScore(player) >= objective) {
+                winner = player;
+            }
+        }
+    }
+
+    /**
+     * Permutations of the ids of the tokens which map every set
+     * of tokens achieving the objective onto such a set, so that
+     * a position and its images have the same value for each player.
+     * The first is the identity, which is the only one
+     * unless the board is known to be symmetric.
+     */
+    public int[][] getSymmetries() {
+        int[] identity = new int[indexOfToken.length];
+        for (int token = 0; token < identity.length; ++token) {
+            identity[token] = token;
+        }
+        return new int[][]{identity};
+    }
+
+    public int getNumberOfPlayers() {
+        return numberOfPlayers;
+    }
+
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * The player who achieved the objective, or -1
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * The game is over when a player won or the board is empty
+     */
+    public boolean isOver() {
+        return winner != -1 || numberOfAvailableTokens == 0;
+    }
+
+    public int getNumberOfAvailableTokens() {
+        return numberOfAvailableTokens;
+    }
+
+    /**
+     * The id of the i-th token left on the board
+     */
+    public int getAvailableToken(int index) {
+        return available[index];
+    }
+
+    public boolean isAvailable(int token) {
+        return indexOfToken[token] != -1;
+    }
+
+    /**
+     * The player to move takes the given token
+     * and the turn passes to the next player.
+     */
+    public void play(int token) {
+        int index = indexOfToken[token];
+        int last = available[--numberOfAvailableTokens];
+        available[index] = last;
+        indexOfToken[last] = index;
+        indexOfToken[token] = -1;
+
+        playedTokens[numberOfPlayedTokens] = token;
+        previousScores[numberOfPlayedTokens++] = getScore(turn);
+        take(turn, token);
+        if (getScore(turn) >= objective) {
+            winner = turn;
+        }
+        turn = (turn + 1) % numberOfPlayers;
+    }
+
+    /**
+     * Whether the given player would achieve the objective by taking
+     * the token, whoever is to move. The position is left unchanged.
+     */
+    public boolean winsWith(int player, int token) {
+        int previousScore = getScore(player);
+        take(player, token);
+        boolean wins = getScore(player) >= objective;
+        untake(player, token, previousScore);
+        return wins;
+    }
+
+    /**
+     * Whether the given player would achieve the objective if he took
+     * every token left on the board, so whether he can still win.
+     * The position is left unchanged.
+     */
+    public boolean canStillWin(int player) {
+        int taken = 0;
+        while (getScore(player) < objective && taken < numberOfAvailableTokens) {
+            scoresBeforeTaking[taken] = getScore(player);
+            take(player, available[taken++]);
+        }
+        boolean canWin = getScore(player) >= objective;
+        while (taken > 0) {
+            --taken;
+            untake(player, available[taken], scoresBeforeTaking[taken]);
+        }
+        return canWin;
+    }
+
+    /**
+     * Takes back the last token played.
+     * The token is put back at the end of the available tokens.
+     *
+     * @return false if no token was played since the position was created
+     */
+    public boolean undo() {
+        if (numberOfPlayedTokens == 0) {
+            return false;
+        }
+
+        int token = playedTokens[--numberOfPlayedTokens];
+        turn = (turn + numberOfPlayers - 1) % numberOfPlayers;
+        untake(turn, token, previousScores[numberOfPlayedTokens]);
+        winner = -1;
+        indexOfToken[token] = numberOfAvailableTokens;
+        available[numberOfAvailableTokens++] = token;
+        return true;
+    }
+
+    /**
+     * The players take random tokens until the game is over.
+     *
+     * @return the winner, or -1 for a draw
+     */
+    public int playRandomly(Random random) {
+        while (!isOver()) {
+            play(available[random.nextInt(numberOfAvailableTokens)]);
+        }
+        return winner;
+    }
+}
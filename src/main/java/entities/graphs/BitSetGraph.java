@@ -0,0 +1,146 @@
+package entities.graphs;
+
+import java.util.Arrays;
+
+/**
+ * Dense undirected graph for positional games.
+ * The vertices are the integers 0, 1, ..., n - 1 and
+ * every vertex has a row of n bits, stored in a long[],
+ * which marks its neighbours. A set of vertices has
+ * the same layout as a row, so neighbourhoods can be
+ * intersected and counted one word at a time.
+ * A vertex without neighbours shares an empty row, so a large
+ * graph with few edges only stores the rows of their ends.
+ *
+ * @author Ioan Sava
+ */
+public class BitSetGraph {
+    private final int numberOfVertices;
+    private final int wordsPerRow;
+
+    /**
+     * The row of each vertex, emptyRow until it gets a neighbour
+     */
+    private final long[][] rows;
+
+    /**
+     * Never changed
+     */
+    private final long[] emptyRow;
+    private int numberOfEdges;
+
+    public BitSetGraph(int numberOfVertices) {
+        this.numberOfVertices = numberOfVertices;
+        wordsPerRow = wordsPerSet(numberOfVertices);
+        emptyRow = new long[wordsPerRow];
+        rows = new long[numberOfVertices][];
+        Arrays.fill(rows, emptyRow);
+    }
+
+    /**
+     * A copy of another graph, which can then be changed independently
+     */
+    public BitSetGraph(BitSetGraph other) {
+        numberOfVertices = other.numberOfVertices;
+        wordsPerRow = other.wordsPerRow;
+        emptyRow = new long[wordsPerRow];
+        rows = new long[numberOfVertices][];
+        for (int vertex = 0; vertex < numberOfVertices; ++vertex) {
+            rows[vertex] = other.rows[vertex] == other.emptyRow ? emptyRow : other.rows[vertex].clone();
+        }
+        numberOfEdges = other.numberOfEdges;
+    }
+
+    /**
+     * Number of longs of a set of vertices of a graph with n vertices
+     */
+    public static int wordsPerSet(int numberOfVertices) {
+        return (numberOfVertices + 63) >>> 6;
+    }
+
+    public int getNumberOfVertices() {
+        return numberOfVertices;
+    }
+
+    public int getNumberOfEdges() {
+        return numberOfEdges;
+    }
+
+    /**
+     * An empty set of vertices of this graph
+     */
+    public long[] newVertexSet() {
+        return new long[wordsPerRow];
+    }
+
+    public boolean containsEdge(int first, int second) {
+        return (rows[first][second >>> 6] & 1L << second) != 0;
+    }
+
+    /**
+     * The row of a vertex which can be changed
+     */
+    private long[] writableRow(int vertex) {
+        if (rows[vertex] == emptyRow) {
+            rows[vertex] = new long[wordsPerRow];
+        }
+        return rows[vertex];
+    }
+
+    public void addEdge(int first, int second) {
+        if (first != second && !containsEdge(first, second)) {
+            writableRow(first)[second >>> 6] |= 1L << second;
+            writableRow(second)[first >>> 6] |= 1L << first;
+            ++numberOfEdges;
+        }
+    }
+
+    public void removeEdge(int first, int second) {
+        if (containsEdge(first, second)) {
+            rows[first][second >>> 6] &= ~(1L << second);
+            rows[second][first >>> 6] &= ~(1L << first);
+            --numberOfEdges;
+        }
+    }
+
+    public int degree(int vertex) {
+        return popcount(rows[vertex]);
+    }
+
+    /**
+     * target = the common neighbours of two vertices
+     */
+    public void commonNeighbours(int first, int second, long[] target) {
+        long[] firstRow = rows[first];
+        long[] secondRow = rows[second];
+        for (int w = 0; w < wordsPerRow; ++w) {
+            target[w] = firstRow[w] & secondRow[w];
+        }
+    }
+
+    /**
+     * target = the vertices of a set which are neighbours of the given vertex
+     *
+     * @return the number of vertices of the target set
+     */
+    public int intersectNeighbours(long[] set, int vertex, long[] target) {
+        long[] row = rows[vertex];
+        int count = 0;
+        for (int w = 0; w < wordsPerRow; ++w) {
+            target[w] = set[w] & row[w];
+            count += Long.bitCount(target[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Number of vertices of a set
+     */
+    public static int popcount(long[] set) {
+        int count = 0;
+        for (long word : set) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,223 @@
+package entities.journal;
+
+import entities.Board;
+import entities.games.ArithmeticProgressionGame;
+import entities.games.CliqueGame;
+import entities.games.Game;
+import entities.games.MoveLog;
+import entities.listeners.GameListener;
+import entities.players.Player;
+import entities.tokens.ArithmeticProgressionToken;
+import entities.tokens.clique_token.CliqueGameToken;
+import entities.tokens.clique_token.CliqueTokenSpace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only binary journal of finished games,
+ * read back by {@link GameJournalReader}.
+ * As a listener, it appends every game which ends;
+ * a game can also be appended with {@link #append(Game, Player)}.
+ * <p>
+ * The file starts with MAGIC and VERSION (4 bytes each), followed
+ * by one record per game: the varint length of the rest of the record,
+ * the kind of the board (1 byte), the objective, the seed of the board,
+ * the names of the players, the winner (its index + 1, 0 for none),
+ * the board and the moves, all of them varints
+ * (see {@link JournalEncoder}). The board is the list of the tokens
+ * of the game, in the order of their ids: the values of the
+ * arithmetic progression tokens, as differences from the previous one,
+ * the number of nodes of a complete graph, or the nodes of each edge.
+ * A move is the id of its token times the number of players,
+ * plus the index of the player, so most moves take a single byte.
+ * <p>
+ * The records are encoded on the thread of the game, into a buffer
+ * of that thread, and copied to a shared buffer which is written
+ * to the file only when it is full, so appending a game costs
+ * no system call. The games still in the buffer are written
+ * by {@link #flush()} and {@link #close()}.
+ *
+ * @author Ioan Sava
+ */
+public class GameJournal implements GameListener, Closeable {
+    static final int MAGIC = 0x50474A4E;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+
+    static final int ARITHMETIC_PROGRESSION_VALUES = 0;
+    static final int CLIQUE_COMPLETE_GRAPH = 1;
+    static final int CLIQUE_EDGES = 2;
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final ThreadLocal<JournalEncoder> encoders = ThreadLocal.withInitial(JournalEncoder::new);
+    private long numberOfGames;
+
+    public GameJournal(Path path) throws IOException {
+        this(path, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Opens a journal to append games to it, creating it if it does not exist
+     *
+     * @throws IOException if the file cannot be written or is not a journal
+     */
+    public GameJournal(Path path, int bufferSize) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (channel.size() == 0) {
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                channel.write(header, 0);
+            } else {
+                channel.read(header, 0);
+                header.flip();
+                if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw new IOException(path + " is not a game journal");
+                }
+            }
+            channel.position(channel.size());
+        } catch (IOException exception) {
+            channel.close();
+            throw exception;
+        }
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Number of games appended since the journal was opened
+     */
+    public synchronized long getNumberOfGames() {
+        return numberOfGames;
+    }
+
+    @Override
+    public void gameOver(Game game, Player winner, int[] scores) {
+        try {
+            append(game, winner);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Cannot write the game journal", exception);
+        }
+    }
+
+    /**
+     * Appends a game with the moves of its move log
+     *
+     * @param winner the player who won, or null
+     * @throws IllegalArgumentException if the type of the game cannot be journaled
+     */
+    public void append(Game game, Player winner) throws IOException {
+        JournalEncoder encoder = encoders.get();
+        encoder.clear();
+        encode(game, winner, encoder);
+        write(encoder);
+    }
+
+    private static void encode(Game game, Player winner, JournalEncoder encoder) {
+        encoder.writeByte(kindOf(game));
+        encoder.writeVarint(game.getObjective());
+        encoder.writeSignedVarint(game.getBoard().getSeed());
+
+        int numberOfPlayers = game.getListOfPlayers().size();
+        encoder.writeVarint(numberOfPlayers);
+        for (Player player : game.getListOfPlayers()) {
+            encoder.writeString(player.getName());
+        }
+        encoder.writeVarint(winner == null ? 0 : game.getListOfPlayers().indexOf(winner) + 1);
+        encodeBoard(game, encoder);
+
+        MoveLog moveLog = game.getMoveLog();
+        encoder.writeVarint(moveLog.size());
+        for (int move = 0; move < moveLog.size(); ++move) {
+            encoder.writeVarint((long) moveLog.getToken(move) * numberOfPlayers + moveLog.getPlayer(move));
+        }
+    }
+
+    /**
+     * The kind of the board of a game
+     *
+     * @throws IllegalArgumentException if the type of the game cannot be journaled
+     */
+    static int kindOf(Game game) {
+        if (game instanceof ArithmeticProgressionGame) {
+            return ARITHMETIC_PROGRESSION_VALUES;
+        } else if (game instanceof CliqueGame) {
+            return game.getBoard().getTokenSpace() instanceof CliqueTokenSpace ? CLIQUE_COMPLETE_GRAPH : CLIQUE_EDGES;
+        }
+        throw new IllegalArgumentException(game.getClass().getSimpleName() + " cannot be journaled");
+    }
+
+    /**
+     * Writes every token of the board of a game, in the order of their ids,
+     * as it is read by {@link JournalDecoder#readBoard}
+     */
+    static void encodeBoard(Game game, JournalEncoder encoder) {
+        Board board = game.getBoard();
+        int numberOfIds = board.getNumberOfIds();
+        int kind = kindOf(game);
+        if (kind == ARITHMETIC_PROGRESSION_VALUES) {
+            encoder.writeVarint(numberOfIds);
+            int previous = 0;
+            for (int id = 0; id < numberOfIds; ++id) {
+                int value = ((ArithmeticProgressionToken) board.tokenOf(id)).getValue();
+                encoder.writeSignedVarint(value - previous);
+                previous = value;
+            }
+        } else if (kind == CLIQUE_COMPLETE_GRAPH) {
+            encoder.writeVarint(((CliqueTokenSpace) board.getTokenSpace()).getNumberOfNodes());
+        } else {
+            encoder.writeVarint(numberOfIds);
+            for (int id = 0; id < numberOfIds; ++id) {
+                CliqueGameToken edge = (CliqueGameToken) board.tokenOf(id);
+                encoder.writeVarint(edge.getFirstNode().getLabel());
+                encoder.writeVarint(edge.getSecondNode().getLabel());
+            }
+        }
+    }
+
+    private synchronized void write(JournalEncoder encoder) throws IOException {
+        int length = encoder.size();
+        int recordSize = JournalEncoder.varintSize(length) + length;
+        if (buffer.remaining() < recordSize) {
+            flush();
+        }
+        // A record larger than the buffer is written directly
+        ByteBuffer target = buffer.remaining() >= recordSize ? buffer : ByteBuffer.allocate(recordSize);
+        JournalEncoder.putVarint(target, length);
+        target.put(encoder.bytes(), 0, length);
+        if (target != buffer) {
+            target.flip();
+            while (target.hasRemaining()) {
+                channel.write(target);
+            }
+        }
+        ++numberOfGames;
+    }
+
+    /**
+     * Writes the buffered games to the file
+     */
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            flush();
+            channel.close();
+        }
+    }
+}
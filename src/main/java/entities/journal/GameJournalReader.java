@@ -0,0 +1,258 @@
+package entities.journal;
+
+import entities.Board;
+import entities.games.ArithmeticProgressionGame;
+import entities.games.CliqueGame;
+import entities.games.Game;
+import entities.listeners.SilentGameListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the games of a {@link GameJournal} one after the other.
+ * The file is memory-mapped in windows of at most 1 GB which start
+ * at a record, so reading a game decodes its varints straight from
+ * the page cache, into arrays which are reused for every game;
+ * the names of the players are decoded only when they are asked for.
+ * A record cut short at the end of the file (by a crash while
+ * it was written) ends the journal.
+ *
+ * @author Ioan Sava
+ */
+public class GameJournalReader implements Closeable {
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final int MAXIMUM_VARINT_SIZE = 10;
+
+    private final FileChannel channel;
+    private final long fileSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /**
+     * Reads the window, from the next record
+     */
+    private final JournalDecoder decoder;
+    private long numberOfGames;
+
+    private int kind;
+    private int objective;
+    private long seed;
+    private int numberOfPlayers;
+    private int[] nameOffsets = new int[2];
+    private int[] nameLengths = new int[2];
+    private int winner;
+
+    private int numberOfMoves;
+    private int[] movePlayers = new int[16];
+    private int[] moveTokens = new int[16];
+
+    /**
+     * @throws IOException if the file cannot be read or is not a journal
+     */
+    public GameJournalReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            fileSize = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(GameJournal.HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < GameJournal.HEADER_SIZE || header.getInt() != GameJournal.MAGIC ||
+                    header.getInt() != GameJournal.VERSION) {
+                throw new IOException(path + " is not a game journal");
+            }
+            decoder = new JournalDecoder(map(GameJournal.HEADER_SIZE), 0);
+        } catch (IOException exception) {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    private MappedByteBuffer map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, fileSize - start));
+        return window;
+    }
+
+    private void remap(int offset) throws IOException {
+        decoder.reset(map(windowStart + offset), 0);
+    }
+
+    private boolean windowReachesEnd() {
+        return windowStart + window.limit() == fileSize;
+    }
+
+    /**
+     * Number of games read so far
+     */
+    public long getNumberOfGames() {
+        return numberOfGames;
+    }
+
+    /**
+     * Reads the next game
+     *
+     * @return false if there are no more games
+     * @throws IOException if a record is corrupt
+     */
+    public boolean next() throws IOException {
+        if (decoder.getOffset() + MAXIMUM_VARINT_SIZE > window.limit() && !windowReachesEnd()) {
+            remap(decoder.getOffset());
+        }
+        int start = decoder.getOffset();
+        if (start >= window.limit() || (windowReachesEnd() && !varintEndsInWindow(start))) {
+            return false;
+        }
+
+        long length = decoder.readVarint();
+        if (decoder.getOffset() + length > window.limit()) {
+            if (windowReachesEnd()) {
+                decoder.reset(window, start);
+                return false;
+            }
+            remap(start);
+            start = 0;
+            if (length + MAXIMUM_VARINT_SIZE > window.limit()) {
+                throw new IOException("A record of " + length + " bytes is too large");
+            }
+            decoder.readVarint();
+        }
+        long end = decoder.getOffset() + length;
+        try {
+            decode();
+        } catch (IndexOutOfBoundsException exception) {
+            throw new IOException("Corrupt record at " + (windowStart + start), exception);
+        }
+        if (decoder.getOffset() != end) {
+            throw new IOException("Corrupt record at " + (windowStart + start));
+        }
+        ++numberOfGames;
+        return true;
+    }
+
+    /**
+     * Whether the varint at the position ends before the end of the window,
+     * so that it was not cut short
+     */
+    private boolean varintEndsInWindow(int position) {
+        int end = Math.min(window.limit(), position + MAXIMUM_VARINT_SIZE);
+        for (int i = position; i < end; ++i) {
+            if (window.get(i) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void decode() throws IOException {
+        kind = decoder.readByte();
+        objective = decoder.readInt();
+        seed = decoder.readSignedVarint();
+
+        numberOfPlayers = decoder.readInt();
+        if (nameOffsets.length < numberOfPlayers) {
+            nameOffsets = new int[numberOfPlayers];
+            nameLengths = new int[numberOfPlayers];
+        }
+        for (int player = 0; player < numberOfPlayers; ++player) {
+            nameLengths[player] = decoder.readInt();
+            nameOffsets[player] = decoder.getOffset();
+            decoder.skip(nameLengths[player]);
+        }
+        winner = decoder.readInt() - 1;
+        decoder.readBoard(kind);
+
+        numberOfMoves = decoder.readInt();
+        if (movePlayers.length < numberOfMoves) {
+            movePlayers = new int[Math.max(numberOfMoves, 2 * movePlayers.length)];
+            moveTokens = new int[movePlayers.length];
+        }
+        for (int move = 0; move < numberOfMoves; ++move) {
+            long code = decoder.readVarint();
+            movePlayers[move] = (int) (code % numberOfPlayers);
+            moveTokens[move] = (int) (code / numberOfPlayers);
+        }
+    }
+
+    public boolean isCliqueGame() {
+        return kind != GameJournal.ARITHMETIC_PROGRESSION_VALUES;
+    }
+
+    public int getObjective() {
+        return objective;
+    }
+
+    /**
+     * The seed of the board of the game, or 0 if it was not known
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getNumberOfPlayers() {
+        return numberOfPlayers;
+    }
+
+    public String getPlayerName(int player) {
+        return decoder.stringAt(nameOffsets[player], nameLengths[player]);
+    }
+
+    /**
+     * The index of the player who won, or -1 if nobody did
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    public int getNumberOfMoves() {
+        return numberOfMoves;
+    }
+
+    public int getPlayer(int move) {
+        return movePlayers[move];
+    }
+
+    /**
+     * The id of the token taken by the move, on the board of the game
+     */
+    public int getToken(int move) {
+        return moveTokens[move];
+    }
+
+    /**
+     * Rebuilds the game which was read last, with its final state:
+     * the same board and players, and every move made again.
+     * The players only have names (see {@link ReplayedPlayer}).
+     *
+     * @throws IOException if the game cannot be rebuilt
+     */
+    public Game replay() throws IOException {
+        try {
+            Board board = decoder.createBoard(kind);
+            board.setSeed(seed);
+            Game game = isCliqueGame() ? new CliqueGame(board, 1, objective) :
+                    new ArithmeticProgressionGame(board, 1, objective);
+            game.setListener(SilentGameListener.INSTANCE);
+            for (int player = 0; player < numberOfPlayers; ++player) {
+                game.addPlayers(new ReplayedPlayer(getPlayerName(player)));
+            }
+            for (int move = 0; move < numberOfMoves; ++move) {
+                game.makeMove(movePlayers[move], board.tokenOf(moveTokens[move]));
+            }
+            return game;
+        } catch (Exception exception) {
+            throw new IOException("Cannot replay game " + numberOfGames + ": " + exception.getMessage(), exception);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,276 @@
+package entities.journal;
+
+import entities.Board;
+import entities.TimeControl;
+import entities.TimeKeeper;
+import entities.games.ArithmeticProgressionGame;
+import entities.games.CliqueGame;
+import entities.games.Game;
+import entities.games.MoveLog;
+import entities.players.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact binary snapshots of games in progress, so that they
+ * can be restored, for instance after a restart, and continue
+ * exactly where they stopped (see {@link Game#resume()}).
+ * <p>
+ * A snapshot holds what a record of a {@link GameJournal} holds
+ * (the kind of the board, the objective, the seed, the players and
+ * the board), the time control, how long the game has run and the
+ * clock of each player, the current turn, the score of each player
+ * and the moves made, each with the score of its player before it.
+ * The hands are the tokens of the moves and the scores are given
+ * to the scorers of the game together with the hands, so restoring
+ * a game neither replays nor scores its moves.
+ * Undone moves which could still be redone are not kept.
+ * <p>
+ * Taking a snapshot locks only its game, while the game is encoded.
+ *
+ * @author Ioan Sava
+ */
+public final class GameSnapshot {
+    static final int MAGIC = 0x5047534E;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private static final ThreadLocal<JournalEncoder> ENCODERS = ThreadLocal.withInitial(JournalEncoder::new);
+
+    /**
+     * Creates the players of a restored game
+     */
+    @FunctionalInterface
+    public interface PlayerFactory {
+        /**
+         * @param type the name of the class of the player who was saved
+         */
+        Player create(String type, String name) throws Exception;
+    }
+
+    /**
+     * Creates a player of the same class, which should be a player with
+     * a public constructor taking only the name. The class is checked
+     * to be a player before anything is created. The players which need
+     * more settings (a move time, a table, a book...) cannot be rebuilt
+     * this way: a factory which knows them should be given instead.
+     */
+    public static final PlayerFactory SAME_TYPE = (type, name) -> {
+        Class<? extends Player> playerClass;
+        try {
+            playerClass = Class.forName(type, false, Player.class.getClassLoader()).asSubclass(Player.class);
+        } catch (ClassNotFoundException | ClassCastException exception) {
+            throw new IOException(type + " is not a player", exception);
+        }
+        try {
+            return playerClass.getConstructor(String.class).newInstance(name);
+        } catch (ReflectiveOperationException exception) {
+            throw new IOException("The player " + name + " of type " + type +
+                    " cannot be rebuilt from his name, a PlayerFactory should create him", exception);
+        }
+    };
+
+    private GameSnapshot() {
+    }
+
+    /**
+     * A snapshot of the current state of a game
+     *
+     * @throws IllegalArgumentException if the type of the game cannot be saved
+     */
+    public static byte[] take(Game game) {
+        JournalEncoder encoder = ENCODERS.get();
+        encoder.clear();
+        encode(game, encoder);
+        return Arrays.copyOf(encoder.bytes(), encoder.size());
+    }
+
+    private static void encode(Game game, JournalEncoder encoder) {
+        synchronized (game) {
+            encoder.writeByte(GameJournal.kindOf(game));
+            encoder.writeVarint(game.getObjective());
+            encoder.writeSignedVarint(game.getBoard().getSeed());
+
+            TimeKeeper timeKeeper = game.getTimeKeeper();
+            TimeControl timeControl = timeKeeper.getTimeControl();
+            encoder.writeVarint(timeControl.getGameTime());
+            encoder.writeVarint(timeControl.getPlayerTime());
+            encoder.writeVarint(timeControl.getIncrement());
+            encoder.writeVarint(timeKeeper.getElapsedTime());
+
+            List<Player> players = game.getListOfPlayers();
+            encoder.writeVarint(players.size());
+            for (int index = 0; index < players.size(); ++index) {
+                encoder.writeString(players.get(index).getClass().getName());
+                encoder.writeString(players.get(index).getName());
+                encoder.writeVarint(game.getScore(index));
+                encoder.writeVarint(timeKeeper.getRemainingTime(index));
+            }
+            GameJournal.encodeBoard(game, encoder);
+
+            encoder.writeSignedVarint(game.getCurrentTurn());
+            encoder.writeByte(game.isTurnPlayed() ? 1 : 0);
+            MoveLog moveLog = game.getMoveLog();
+            encoder.writeVarint(moveLog.size());
+            for (int move = 0; move < moveLog.size(); ++move) {
+                encoder.writeVarint((long) moveLog.getToken(move) * players.size() + moveLog.getPlayer(move));
+                encoder.writeVarint(moveLog.getPreviousScore(move));
+            }
+        }
+    }
+
+    /**
+     * Restores a game from a snapshot.
+     * The game is not started: it continues with {@link Game#resume()}.
+     *
+     * @param playerFactory creates the players, for instance {@link #SAME_TYPE}
+     * @throws IOException if the snapshot is corrupt or a player cannot be created
+     */
+    public static Game restore(byte[] snapshot, PlayerFactory playerFactory) throws IOException {
+        return restore(ByteBuffer.wrap(snapshot), playerFactory);
+    }
+
+    /**
+     * Restores a game from the snapshot at the position of the buffer,
+     * which is moved after the snapshot
+     *
+     * @throws IOException if the snapshot is corrupt or a player cannot be created
+     */
+    public static Game restore(ByteBuffer snapshot, PlayerFactory playerFactory) throws IOException {
+        return restore(new JournalDecoder(snapshot, snapshot.position()), snapshot, playerFactory);
+    }
+
+    private static Game restore(JournalDecoder decoder, ByteBuffer snapshot, PlayerFactory playerFactory)
+            throws IOException {
+        try {
+            int kind = decoder.readByte();
+            int objective = decoder.readInt();
+            long seed = decoder.readSignedVarint();
+            TimeControl timeControl = new TimeControl(decoder.readVarint(), decoder.readVarint(), decoder.readVarint());
+            long elapsedTime = decoder.readVarint();
+
+            int numberOfPlayers = decoder.readInt();
+            Player[] players = new Player[numberOfPlayers];
+            int[] scores = new int[numberOfPlayers];
+            long[] remainingTimes = new long[numberOfPlayers];
+            for (int index = 0; index < numberOfPlayers; ++index) {
+                String type = decoder.readString();
+                players[index] = playerFactory.create(type, decoder.readString());
+                scores[index] = decoder.readInt();
+                remainingTimes[index] = decoder.readVarint();
+            }
+
+            decoder.readBoard(kind);
+            Board board = decoder.createBoard(kind);
+            board.setSeed(seed);
+            Game game = kind == GameJournal.ARITHMETIC_PROGRESSION_VALUES ?
+                    new ArithmeticProgressionGame(board, timeControl, objective) :
+                    new CliqueGame(board, timeControl, objective);
+            game.addPlayers(players);
+            game.getTimeKeeper().restore(elapsedTime, timeControl.getPlayerTime() > 0 ? remainingTimes : null);
+
+            int currentTurn = (int) decoder.readSignedVarint();
+            boolean turnPlayed = decoder.readByte() != 0;
+            int numberOfMoves = decoder.readInt();
+            for (int move = 0; move < numberOfMoves; ++move) {
+                long code = decoder.readVarint();
+                game.restoreMove((int) (code % numberOfPlayers), (int) (code / numberOfPlayers), decoder.readInt());
+            }
+            game.restoreState(currentTurn, turnPlayed, scores);
+            snapshot.position(decoder.getOffset());
+            return game;
+        } catch (IOException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new IOException("Cannot restore the game: " + exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Saves the games in a file, replacing it only once every game is written.
+     * The games are locked one at a time, so they can keep running.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, Collection<? extends Game> games) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        JournalEncoder encoder = ENCODERS.get();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION);
+            for (Game game : games) {
+                encoder.clear();
+                encode(game, encoder);
+                int length = encoder.size();
+                int recordSize = JournalEncoder.varintSize(length) + length;
+                if (buffer.remaining() < recordSize) {
+                    writeAll(channel, buffer);
+                }
+                ByteBuffer target = buffer.remaining() >= recordSize ? buffer : ByteBuffer.allocate(recordSize);
+                JournalEncoder.putVarint(target, length);
+                target.put(encoder.bytes(), 0, length);
+                if (target != buffer) {
+                    writeAll(channel, target);
+                }
+            }
+            writeAll(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeAll(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Restores the games saved in a file, which is memory-mapped
+     *
+     * @param playerFactory creates the players, for instance {@link #SAME_TYPE}
+     * @throws IOException if the file cannot be read or is corrupt or a player cannot be created
+     */
+    public static List<Game> read(Path path, PlayerFactory playerFactory) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(path + " is too large");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException(path + " is not a file of game snapshots");
+            }
+
+            List<Game> games = new ArrayList<>();
+            JournalDecoder decoder = new JournalDecoder(buffer, HEADER_SIZE);
+            try {
+                while (decoder.getOffset() < buffer.limit()) {
+                    long end = decoder.readVarint() + decoder.getOffset();
+                    games.add(restore(decoder, buffer, playerFactory));
+                    if (decoder.getOffset() != end) {
+                        throw new IOException("Corrupt snapshot of game " + games.size());
+                    }
+                }
+            } catch (IndexOutOfBoundsException exception) {
+                throw new IOException(path + " is truncated", exception);
+            }
+            return games;
+        }
+    }
+}
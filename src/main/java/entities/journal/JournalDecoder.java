@@ -0,0 +1,155 @@
+package entities.journal;
+
+import entities.Board;
+import entities.tokens.ArithmeticProgressionToken;
+import entities.tokens.ArithmeticProgressionTokenSpace;
+import entities.tokens.clique_token.CliqueGameToken;
+import entities.tokens.clique_token.CliqueTokenSpace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads what a {@link JournalEncoder} wrote, from a position of a buffer,
+ * with absolute reads, so the buffer itself is never changed.
+ * The board of the last record is decoded into an array
+ * which is reused for every record.
+ *
+ * @author Ioan Sava
+ */
+class JournalDecoder {
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * The values of the arithmetic progression tokens, the number
+     * of nodes of a complete graph (in boardValues[0]) or the nodes of the edges
+     */
+    private int[] boardValues = new int[16];
+    private int boardSize;
+
+    JournalDecoder(ByteBuffer buffer, int offset) {
+        reset(buffer, offset);
+    }
+
+    void reset(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    int getOffset() {
+        return offset;
+    }
+
+    void skip(int length) {
+        offset += length;
+    }
+
+    int readByte() {
+        return buffer.get(offset++);
+    }
+
+    long readVarint() {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = buffer.get(offset++);
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        return value;
+    }
+
+    int readInt() {
+        return (int) readVarint();
+    }
+
+    long readSignedVarint() {
+        long value = readVarint();
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    String readString() {
+        int length = readInt();
+        String value = stringAt(offset, length);
+        offset += length;
+        return value;
+    }
+
+    /**
+     * The string of the given number of UTF-8 bytes at a position of the buffer
+     */
+    String stringAt(int position, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; ++i) {
+            bytes[i] = buffer.get(position + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a board written by {@link GameJournal#encodeBoard}
+     *
+     * @throws IOException if the kind of the board is unknown
+     */
+    void readBoard(int kind) throws IOException {
+        if (kind == GameJournal.ARITHMETIC_PROGRESSION_VALUES) {
+            boardSize = readInt();
+            ensureBoardCapacity(boardSize);
+            int value = 0;
+            for (int id = 0; id < boardSize; ++id) {
+                value += (int) readSignedVarint();
+                boardValues[id] = value;
+            }
+        } else if (kind == GameJournal.CLIQUE_COMPLETE_GRAPH) {
+            boardSize = 1;
+            boardValues[0] = readInt();
+        } else if (kind == GameJournal.CLIQUE_EDGES) {
+            boardSize = 2 * readInt();
+            ensureBoardCapacity(boardSize);
+            for (int i = 0; i < boardSize; ++i) {
+                boardValues[i] = readInt();
+            }
+        } else {
+            throw new IOException("Unknown kind of board " + kind);
+        }
+    }
+
+    private void ensureBoardCapacity(int size) {
+        if (boardValues.length < size) {
+            boardValues = new int[Math.max(size, 2 * boardValues.length)];
+        }
+    }
+
+    /**
+     * A board with every token of the board read last, in the order of their ids
+     */
+    Board createBoard(int kind) throws Exception {
+        if (kind == GameJournal.CLIQUE_COMPLETE_GRAPH) {
+            return new Board(new CliqueTokenSpace(boardValues[0]));
+        }
+        if (kind == GameJournal.CLIQUE_EDGES) {
+            Board board = new Board();
+            for (int i = 0; i < boardSize; i += 2) {
+                board.addTokens(new CliqueGameToken(boardValues[i], boardValues[i + 1]));
+            }
+            return board;
+        }
+
+        boolean sorted = true;
+        for (int id = 1; id < boardSize && sorted; ++id) {
+            sorted = boardValues[id] > boardValues[id - 1];
+        }
+        if (sorted) {
+            return new Board(new ArithmeticProgressionTokenSpace(Arrays.copyOf(boardValues, boardSize)));
+        }
+        Board board = new Board();
+        for (int id = 0; id < boardSize; ++id) {
+            board.addTokens(new ArithmeticProgressionToken(boardValues[id]));
+        }
+        return board;
+    }
+}
@@ -0,0 +1,21 @@
+package entities.journal;
+
+import entities.players.Player;
+import entities.tokens.Token;
+
+/**
+ * A player of a game rebuilt from a journal, which only
+ * has a name: its moves are read, never chosen.
+ *
+ * @author Ioan Sava
+ */
+public class ReplayedPlayer extends Player {
+    public ReplayedPlayer(String name) {
+        super(name);
+    }
+
+    @Override
+    protected Token chooseToken() {
+        throw new IllegalStateException("The moves of a replayed game are read from its journal");
+    }
+}
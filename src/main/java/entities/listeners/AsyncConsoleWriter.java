@@ -0,0 +1,115 @@
+package entities.listeners;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Writes text on a background daemon thread.
+ * The callers only enqueue their messages, while
+ * the writer thread drains them in batches through
+ * a buffered writer and flushes once the queue is empty.
+ * What was printed before the application exits is written
+ * by a shutdown hook, so nobody has to wait for the writer
+ * after a game.
+ *
+ * @author Ioan Sava
+ */
+public class AsyncConsoleWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final AsyncConsoleWriter STANDARD_OUTPUT = new AsyncConsoleWriter(System.out);
+
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final Writer writer;
+
+    public AsyncConsoleWriter(OutputStream outputStream) {
+        writer = new BufferedWriter(new OutputStreamWriter(outputStream), BUFFER_SIZE);
+        Thread thread = new Thread(this::drain, "async-console-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "async-console-writer-flush"));
+    }
+
+    /**
+     * The writer shared by everyone who prints to System.out
+     */
+    public static AsyncConsoleWriter standardOutput() {
+        return STANDARD_OUTPUT;
+    }
+
+    public void print(String text) {
+        queue.add(text);
+    }
+
+    public void println(Object text) {
+        queue.add(text + System.lineSeparator());
+    }
+
+    /**
+     * Asks for everything printed so far to be written, without waiting.
+     *
+     * @return a latch which is released once it has been written
+     */
+    public CountDownLatch requestFlush() {
+        CountDownLatch written = new CountDownLatch(1);
+        queue.add(written);
+        return written;
+    }
+
+    /**
+     * Blocks until everything printed so far has been written,
+     * so it must not be called while a game is locked.
+     */
+    public void flush() {
+        try {
+            requestFlush().await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        List<Object> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException exception) {
+                return;
+            }
+            queue.drainTo(batch);
+
+            List<CountDownLatch> flushes = new ArrayList<>();
+            try {
+                for (Object item : batch) {
+                    if (item instanceof CountDownLatch) {
+                        flushes.add((CountDownLatch) item);
+                    } else {
+                        writer.write((String) item);
+                    }
+                }
+                if (queue.isEmpty()) {
+                    writer.flush();
+                }
+            } catch (IOException exception) {
+                exception.printStackTrace();
+            }
+            batch.clear();
+
+            for (CountDownLatch flush : flushes) {
+                try {
+                    writer.flush();
+                } catch (IOException exception) {
+                    exception.printStackTrace();
+                }
+                flush.countDown();
+            }
+        }
+    }
+}
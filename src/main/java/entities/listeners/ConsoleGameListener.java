@@ -0,0 +1,81 @@
+package entities.listeners;
+
+import entities.games.Game;
+import entities.players.Player;
+import entities.tokens.Token;
+
+/**
+ * Shows the progress of the game on the console.
+ * The messages are rendered on the player threads but
+ * written by an {@link AsyncConsoleWriter}, so the players
+ * never wait for the console. At the end of the game the writer
+ * is only asked to flush, since the game is locked.
+ *
+ * @author Ioan Sava
+ */
+public class ConsoleGameListener implements GameListener {
+    private static final String SEPARATOR = "---------------------------------------------------------------";
+
+    private final AsyncConsoleWriter writer;
+
+    public ConsoleGameListener() {
+        this(AsyncConsoleWriter.standardOutput());
+    }
+
+    public ConsoleGameListener(AsyncConsoleWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void gameStarted(Game game) {
+        writer.println(game.getWelcomeMessage());
+    }
+
+    @Override
+    public void turnStarted(Game game, Player player) {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(SEPARATOR).append("\n");
+        stringBuilder.append(player.getName()).append("'s turn\n");
+        stringBuilder.append(game.getBoard()).append("\n");
+        int turn = game.getListOfPlayers().indexOf(player);
+        if (game.getPlayersTokens().size() > turn) {
+            stringBuilder.append("Your tokens: ").append(game.getPlayersTokens().get(turn)).append("\n");
+        }
+        stringBuilder.append("Choose a token ");
+        writer.println(stringBuilder);
+    }
+
+    @Override
+    public void tokenPicked(Game game, Player player, Token token) {
+        writer.println("Player " + player.getName() + " selected the following token: " + token);
+    }
+
+    @Override
+    public void gameOver(Game game, Player winner, int[] scores) {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(SEPARATOR).append("\n");
+        if (winner != null) {
+            stringBuilder.append(winner.getName()).append(" won\n");
+            stringBuilder.append("Game has ended");
+        } else {
+            stringBuilder.append("Game over\n");
+            stringBuilder.append("Scores: ");
+            for (int i = 0; i < scores.length; ++i) {
+                stringBuilder.append("\n").append(game.getListOfPlayers().get(i).getName())
+                        .append(": ").append(scores[i]).append(" points");
+            }
+        }
+        writer.println(stringBuilder);
+        writer.requestFlush();
+    }
+
+    @Override
+    public void timeElapsed(Game game, int minutesPassed, int minutesRemaining) {
+        writer.println(minutesPassed + " minutes passed. " + minutesRemaining + " minutes remaining.");
+    }
+
+    @Override
+    public void timeLimitExceeded(Game game) {
+        writer.println("Limit time exceeded. This game is over");
+    }
+}
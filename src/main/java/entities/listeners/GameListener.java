@@ -0,0 +1,62 @@
+package entities.listeners;
+
+import entities.games.Game;
+import entities.players.Player;
+import entities.tokens.Token;
+
+/**
+ * Receives the events of a game.
+ * Every method does nothing by default,
+ * so a listener implements only the events it needs.
+ * The events are sent from the thread of the player
+ * which made the move (or from the time keeper),
+ * so a listener should not block.
+ *
+ * @author Ioan Sava
+ */
+public interface GameListener {
+    /**
+     * The game has started and the first turn has been chosen.
+     */
+    default void gameStarted(Game game) {
+    }
+
+    /**
+     * A player has to choose a token.
+     */
+    default void turnStarted(Game game, Player player) {
+    }
+
+    /**
+     * A player extracted a token from the board.
+     */
+    default void tokenPicked(Game game, Player player, Token token) {
+    }
+
+    /**
+     * The score of a player was computed after his move.
+     */
+    default void scoreChanged(Game game, Player player, int score) {
+    }
+
+    /**
+     * The game has ended.
+     *
+     * @param winner the player who achieved the objective or null if nobody did
+     * @param scores the final score of each player
+     */
+    default void gameOver(Game game, Player winner, int[] scores) {
+    }
+
+    /**
+     * Another minute of the game has passed.
+     */
+    default void timeElapsed(Game game, int minutesPassed, int minutesRemaining) {
+    }
+
+    /**
+     * The time limit of the game has been exceeded.
+     */
+    default void timeLimitExceeded(Game game) {
+    }
+}
@@ -0,0 +1,14 @@
+package entities.listeners;
+
+/**
+ * Ignores every event, so no output
+ * is printed or rendered during the game.
+ *
+ * @author Ioan Sava
+ */
+public final class SilentGameListener implements GameListener {
+    public static final SilentGameListener INSTANCE = new SilentGameListener();
+
+    private SilentGameListener() {
+    }
+}
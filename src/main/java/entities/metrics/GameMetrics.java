@@ -0,0 +1,113 @@
+package entities.metrics;
+
+import entities.games.Game;
+import entities.players.Player;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Latency metrics of the games, aggregated by the class
+ * of the game and by the class of the player, and published
+ * as MBeans under the domain "positional-games", so they can
+ * be watched with any JMX console.
+ * <p>
+ * The metrics are disabled unless the system property
+ * positional.metrics is true or {@link #enable()} is called.
+ * A measured section starts with {@link #now()}, which reads
+ * the clock only if the metrics are enabled and returns 0
+ * otherwise, and every record method returns immediately
+ * for a start of 0, so a disabled section costs one read
+ * of a volatile field and one comparison.
+ *
+ * @author Ioan Sava
+ */
+public final class GameMetrics {
+    private static final String DOMAIN = "positional-games";
+
+    private static volatile boolean enabled = Boolean.getBoolean("positional.metrics");
+
+    private static final ClassValue<GameTypeMetrics> GAME_TYPES = new ClassValue<GameTypeMetrics>() {
+        @Override
+        protected GameTypeMetrics computeValue(Class<?> gameClass) {
+            GameTypeMetrics metrics = new GameTypeMetrics(nameOf(gameClass));
+            register("type=Game,name=" + metrics.getGameType(), metrics);
+            return metrics;
+        }
+    };
+
+    private GameMetrics() {
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The start of a measured section, in System.nanoTime(),
+     * or 0 if the metrics are disabled
+     */
+    public static long now() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    static String nameOf(Class<?> type) {
+        return type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+    }
+
+    /**
+     * Publishes an MBean; the metrics are still kept if it cannot be published
+     */
+    static void register(String properties, Object mbean) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean,
+                    new ObjectName(DOMAIN + ":" + properties));
+        } catch (JMException exception) {
+            System.err.println("Cannot publish the metrics " + properties + ": " + exception.getMessage());
+        }
+    }
+
+    public static GameTypeMetricsMXBean of(Class<? extends Game> gameClass) {
+        return GAME_TYPES.get(gameClass);
+    }
+
+    public static PlayerTypeMetricsMXBean of(Class<? extends Game> gameClass, Class<? extends Player> playerClass) {
+        return GAME_TYPES.get(gameClass).of(playerClass);
+    }
+
+    public static void recordGame(Game game, long start) {
+        if (start != 0) {
+            GAME_TYPES.get(game.getClass()).recordGame(System.nanoTime() - start);
+        }
+    }
+
+    public static void recordScoring(Game game, long start) {
+        if (start != 0) {
+            GAME_TYPES.get(game.getClass()).recordScoring(System.nanoTime() - start);
+        }
+    }
+
+    public static void recordChooseToken(Game game, Player player, long start) {
+        if (start != 0) {
+            GAME_TYPES.get(game.getClass()).of(player.getClass()).recordChooseToken(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @param turnStart when the turn was given to the player
+     */
+    public static void recordTurnHandoff(Game game, Player player, long turnStart) {
+        if (turnStart != 0 && enabled) {
+            GAME_TYPES.get(game.getClass()).of(player.getClass()).recordTurnHandoff(System.nanoTime() - turnStart);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package entities.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Ioan Sava
+ */
+class GameTypeMetrics implements GameTypeMetricsMXBean {
+    private final String gameType;
+    private final LongAdder gamesPlayed = new LongAdder();
+    private final LatencyHistogram gameDuration = new LatencyHistogram();
+    private final LatencyHistogram scoring = new LatencyHistogram();
+    private final ConcurrentMap<Class<?>, PlayerTypeMetrics> players = new ConcurrentHashMap<>();
+
+    GameTypeMetrics(String gameType) {
+        this.gameType = gameType;
+    }
+
+    PlayerTypeMetrics of(Class<?> playerClass) {
+        PlayerTypeMetrics metrics = players.get(playerClass);
+        if (metrics == null) {
+            metrics = players.computeIfAbsent(playerClass, newClass -> {
+                PlayerTypeMetrics newMetrics = new PlayerTypeMetrics(gameType, GameMetrics.nameOf(newClass));
+                GameMetrics.register("type=Player,game=" + gameType + ",name=" + newMetrics.getPlayerType(),
+                        newMetrics);
+                return newMetrics;
+            });
+        }
+        return metrics;
+    }
+
+    void recordGame(long nanos) {
+        gamesPlayed.increment();
+        gameDuration.record(nanos);
+    }
+
+    void recordScoring(long nanos) {
+        scoring.record(nanos);
+    }
+
+    @Override
+    public String getGameType() {
+        return gameType;
+    }
+
+    @Override
+    public long getGamesPlayed() {
+        return gamesPlayed.sum();
+    }
+
+    @Override
+    public LatencySnapshot getGameDuration() {
+        return gameDuration.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getScoring() {
+        return scoring.snapshot();
+    }
+
+    @Override
+    public void reset() {
+        gamesPlayed.reset();
+        gameDuration.reset();
+        scoring.reset();
+    }
+}
@@ -0,0 +1,27 @@
+package entities.metrics;
+
+/**
+ * The metrics of all the games of one type
+ *
+ * @author Ioan Sava
+ */
+public interface GameTypeMetricsMXBean {
+    String getGameType();
+
+    /**
+     * Number of games which ended
+     */
+    long getGamesPlayed();
+
+    /**
+     * From the start of a game to its end
+     */
+    LatencySnapshot getGameDuration();
+
+    /**
+     * Updating the score of a player with the token he has just taken
+     */
+    LatencySnapshot getScoring();
+
+    void reset();
+}
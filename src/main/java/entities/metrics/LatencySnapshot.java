@@ -0,0 +1,33 @@
+package entities.metrics;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Summary of a {@link LatencyHistogram}, in nanoseconds.
+ * It is shown by JMX as a composite value.
+ *
+ * @author Ioan Sava
+ */
+@Getter
+@ToString
+public class LatencySnapshot {
+    private final long count;
+    private final double mean;
+    private final long median;
+    private final long percentile90;
+    private final long percentile99;
+    private final long max;
+
+    @ConstructorProperties({"count", "mean", "median", "percentile90", "percentile99", "max"})
+    public LatencySnapshot(long count, double mean, long median, long percentile90, long percentile99, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.median = median;
+        this.percentile90 = percentile90;
+        this.percentile99 = percentile99;
+        this.max = max;
+    }
+}
@@ -0,0 +1,60 @@
+package entities.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author Ioan Sava
+ */
+class PlayerTypeMetrics implements PlayerTypeMetricsMXBean {
+    private final String gameType;
+    private final String playerType;
+    private final LongAdder moves = new LongAdder();
+    private final LatencyHistogram chooseToken = new LatencyHistogram();
+    private final LatencyHistogram turnHandoff = new LatencyHistogram();
+
+    PlayerTypeMetrics(String gameType, String playerType) {
+        this.gameType = gameType;
+        this.playerType = playerType;
+    }
+
+    void recordChooseToken(long nanos) {
+        moves.increment();
+        chooseToken.record(nanos);
+    }
+
+    void recordTurnHandoff(long nanos) {
+        turnHandoff.record(nanos);
+    }
+
+    @Override
+    public String getGameType() {
+        return gameType;
+    }
+
+    @Override
+    public String getPlayerType() {
+        return playerType;
+    }
+
+    @Override
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    @Override
+    public LatencySnapshot getChooseToken() {
+        return chooseToken.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getTurnHandoff() {
+        return turnHandoff.snapshot();
+    }
+
+    @Override
+    public void reset() {
+        moves.reset();
+        chooseToken.reset();
+        turnHandoff.reset();
+    }
+}
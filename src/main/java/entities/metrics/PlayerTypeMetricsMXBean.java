@@ -0,0 +1,31 @@
+package entities.metrics;
+
+/**
+ * The metrics of all the players of one class
+ * in the games of one type
+ *
+ * @author Ioan Sava
+ */
+public interface PlayerTypeMetricsMXBean {
+    String getGameType();
+
+    String getPlayerType();
+
+    /**
+     * Number of tokens chosen
+     */
+    long getMoves();
+
+    /**
+     * Choosing a token, from the opening book or by the strategy of the player
+     */
+    LatencySnapshot getChooseToken();
+
+    /**
+     * From the moment the turn was given to the player
+     * until his thread (or task) started the turn
+     */
+    LatencySnapshot getTurnHandoff();
+
+    void reset();
+}
@@ -0,0 +1,267 @@
+package entities.players;
+
+import entities.Board;
+import entities.games.Game;
+import entities.games.Position;
+import entities.players.search.TranspositionTable;
+import entities.players.search.ZobristKeys;
+import entities.tokens.Token;
+import lombok.Getter;
+
+/**
+ * This player searches the game tree with iterative deepening
+ * alpha-beta until his time for the move runs out.
+ * With more than two players, the opponents are assumed
+ * to play together against him (paranoid search).
+ * The moves are made and unmade on a copy of the position
+ * (see {@link Game#getPosition(int)}), so the game is locked
+ * only while it is copied, and the searched positions are kept
+ * in a transposition table indexed by Zobrist hashes,
+ * which are updated incrementally.
+ * A win is worth less the later it comes, so he takes the quickest
+ * win and delays a loss as much as he can.
+ *
+ * @author Ioan Sava
+ */
+public class AlphaBetaPlayer extends Player {
+    private static final int WIN = 1_000_000;
+    private static final int INFINITY = WIN + 1;
+    private static final int POINT = 100;
+    private static final int MAXIMUM_DEPTH = 255;
+
+    /**
+     * Values from this one on are wins, WIN - ply for a win at the given ply
+     */
+    private static final int WON = WIN - MAXIMUM_DEPTH;
+    private static final int DEFAULT_TABLE_SIZE_IN_BITS = 20;
+    private static final long ZOBRIST_SEED = 0x5DEECE66DL;
+
+    /**
+     * Time limit for choosing a token, in milliseconds
+     */
+    @Getter
+    private final long moveTime;
+
+    private final TranspositionTable transpositionTable;
+    private ZobristKeys zobristKeys;
+    private Game searchedGame;
+
+    /**
+     * Number of positions visited by the last search
+     */
+    @Getter
+    private long nodes;
+
+    private Board board;
+    private Position position;
+    private int me;
+    private int numberOfPlayers;
+    private int objective;
+    private long deadline;
+    private boolean aborted;
+    private long hash;
+
+    /**
+     * Ids of the tokens on the board at the root of the search
+     */
+    private int[] rootTokens;
+    private int numberOfRootTokens;
+
+    /**
+     * The moves to try at each ply, allocated when the search
+     * first reaches the ply and kept for the next moves
+     */
+    private final int[][] moves = new int[MAXIMUM_DEPTH][];
+    private int bestRootMove;
+
+    public AlphaBetaPlayer(String name, long moveTime) {
+        this(name, moveTime, DEFAULT_TABLE_SIZE_IN_BITS);
+    }
+
+    public AlphaBetaPlayer(String name, long moveTime, int tableSizeInBits) {
+        super(name);
+        this.moveTime = moveTime;
+        transpositionTable = new TranspositionTable(tableSizeInBits);
+    }
+
+    /**
+     * The game is locked only while its position is copied
+     */
+    @Override
+    protected Token chooseToken() {
+        Game game = getGame();
+        synchronized (game) {
+            prepare(game);
+        }
+        return search();
+    }
+
+    private void prepare(Game game) {
+        board = game.getBoard();
+        me = game.getListOfPlayers().indexOf(this);
+        numberOfPlayers = game.getListOfPlayers().size();
+        objective = game.getObjective();
+        position = game.getPosition(me);
+
+        int numberOfIds = board.getNumberOfIds();
+        if (game != searchedGame || !zobristKeys.fits(numberOfPlayers, numberOfIds)) {
+            searchedGame = game;
+            zobristKeys = new ZobristKeys(numberOfPlayers, numberOfIds, ZOBRIST_SEED);
+            transpositionTable.clear();
+        }
+
+        hash = zobristKeys.turn(me);
+        for (int player = 0; player < numberOfPlayers; ++player) {
+            for (Token token : game.getPlayersTokens().get(player)) {
+                hash ^= zobristKeys.token(player, board.idOf(token));
+            }
+        }
+
+        numberOfRootTokens = position.getNumberOfAvailableTokens();
+        rootTokens = new int[numberOfRootTokens];
+        for (int i = 0; i < numberOfRootTokens; ++i) {
+            rootTokens[i] = position.getAvailableToken(i);
+        }
+    }
+
+    private Token search() {
+        deadline = System.nanoTime() + moveTime * 1_000_000;
+        aborted = false;
+        nodes = 0;
+
+        int bestMove = rootTokens[0];
+        for (int depth = 1; depth <= Math.min(numberOfRootTokens, MAXIMUM_DEPTH); ++depth) {
+            int value = alphaBeta(depth, 0, me, -INFINITY, INFINITY);
+            if (aborted) {
+                break;
+            }
+            bestMove = bestRootMove;
+            if (Math.abs(value) >= WON) {
+                break;
+            }
+        }
+        return board.tokenOf(bestMove);
+    }
+
+    /**
+     * Score difference between this player and his best opponent
+     */
+    private int evaluate() {
+        int bestOpponent = 0;
+        for (int player = 0; player < numberOfPlayers; ++player) {
+            if (player != me) {
+                bestOpponent = Math.max(bestOpponent, position.getScore(player));
+            }
+        }
+        return POINT * (position.getScore(me) - bestOpponent);
+    }
+
+    private int[] movesAt(int ply) {
+        if (moves[ply] == null || moves[ply].length < numberOfRootTokens) {
+            moves[ply] = new int[numberOfRootTokens];
+        }
+        return moves[ply];
+    }
+
+    /**
+     * A win is stored in the transposition table as a win at the ply
+     * of its position, so that it can be found again at another ply
+     */
+    private static int toTable(int value, int ply) {
+        return value >= WON ? value + ply : value <= -WON ? value - ply : value;
+    }
+
+    private static int fromTable(int value, int ply) {
+        return value >= WON ? value - ply : value <= -WON ? value + ply : value;
+    }
+
+    private int generateMoves(int ply, int preferredMove) {
+        int[] buffer = movesAt(ply);
+        int count = 0;
+        if (preferredMove >= 0 && preferredMove < board.getNumberOfIds() && position.isAvailable(preferredMove)) {
+            buffer[count++] = preferredMove;
+        }
+        for (int i = 0; i < numberOfRootTokens; ++i) {
+            int token = rootTokens[i];
+            if (position.isAvailable(token) && token != preferredMove) {
+                buffer[count++] = token;
+            }
+        }
+        return count;
+    }
+
+    private int alphaBeta(int depth, int ply, int player, int alpha, int beta) {
+        if ((++nodes & 1023) == 0 && System.nanoTime() > deadline) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+
+        int originalAlpha = alpha;
+        int originalBeta = beta;
+        long entry = transpositionTable.probe(hash);
+        if (entry != 0 && ply > 0 && TranspositionTable.depth(entry) >= depth) {
+            int value = fromTable(TranspositionTable.value(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER_BOUND && value >= beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && value <= alpha)) {
+                return value;
+            }
+        }
+
+        int numberOfMoves = generateMoves(ply, entry != 0 ? TranspositionTable.move(entry) : -1);
+        if (numberOfMoves == 0) {
+            return evaluate();
+        }
+
+        boolean maximizing = player == me;
+        int next = (player + 1) % numberOfPlayers;
+        int bestValue = maximizing ? -INFINITY : INFINITY;
+        int[] movesAtPly = moves[ply];
+        int bestMove = movesAtPly[0];
+        for (int i = 0; i < numberOfMoves; ++i) {
+            int token = movesAtPly[i];
+            long key = zobristKeys.token(player, token) ^ zobristKeys.turn(player) ^ zobristKeys.turn(next);
+            position.play(token);
+            hash ^= key;
+
+            int value;
+            if (position.getScore(player) >= objective) {
+                value = maximizing ? WIN - ply : ply - WIN;
+            } else if (depth == 1 || numberOfMoves == 1) {
+                value = evaluate();
+            } else {
+                value = alphaBeta(depth - 1, ply + 1, next, alpha, beta);
+            }
+
+            hash ^= key;
+            position.undo();
+            if (aborted) {
+                return 0;
+            }
+
+            if (maximizing ? value > bestValue : value < bestValue) {
+                bestValue = value;
+                bestMove = token;
+            }
+            if (maximizing) {
+                alpha = Math.max(alpha, value);
+            } else {
+                beta = Math.min(beta, value);
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        int bound = bestValue <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : bestValue >= originalBeta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        transpositionTable.store(hash, depth, bound, toTable(bestValue, ply), bestMove);
+        if (ply == 0) {
+            bestRootMove = bestMove;
+        }
+        return bestValue;
+    }
+}
@@ -0,0 +1,165 @@
+package entities.players;
+
+import entities.Board;
+import entities.games.Game;
+import entities.games.MoveLog;
+import entities.games.Position;
+import entities.graphs.BitSetGraph;
+import entities.players.search.CliqueThreats;
+import entities.tokens.Token;
+import entities.tokens.clique_token.CliqueGameToken;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A player of the clique game which plays as the maker
+ * against all the other players together (the breaker).
+ * He takes an edge which completes his clique if there is one,
+ * otherwise he blocks an edge which would complete a clique
+ * of an opponent, otherwise he takes the edge with the most
+ * threats, counting both his triangles (attack) and the
+ * triangles of the opponents (defence), see {@link CliqueThreats}.
+ * The threat counts are updated from the moves of the game
+ * (see {@link Game#getMoveLog()}) since his previous turn,
+ * and the candidate edges are tried on a copy of the position
+ * (see {@link Game#getPosition(int)}).
+ *
+ * @author Ioan Sava
+ */
+public class CliqueThreatPlayer extends Player {
+    private Game trackedGame;
+    private CliqueThreats threats;
+    private int me;
+
+    /**
+     * The nodes of each token, by id, counted from 0
+     */
+    private int[] firstNodes;
+    private int[] secondNodes;
+
+    /**
+     * Number of moves of the game included in the threat counts
+     */
+    private int trackedMoves;
+    private int lastTrackedToken;
+
+    public CliqueThreatPlayer(String name) {
+        super(name);
+    }
+
+    /**
+     * The game is locked only while the threat counts are updated
+     * and its position is copied.
+     */
+    @Override
+    protected Token chooseToken() {
+        Game game = getGame();
+        Position position;
+        synchronized (game) {
+            track(game);
+            position = game.getPosition(me);
+        }
+        return game.getBoard().tokenOf(choose(position, game.getObjective()));
+    }
+
+    private void track(Game game) {
+        MoveLog moveLog = game.getMoveLog();
+        if (game != trackedGame || moveLog.size() < trackedMoves ||
+                (trackedMoves > 0 && moveLog.getToken(trackedMoves - 1) != lastTrackedToken)) {
+            rebuild(game);
+        }
+        for (; trackedMoves < moveLog.size(); ++trackedMoves) {
+            take(moveLog.getPlayer(trackedMoves), moveLog.getToken(trackedMoves));
+        }
+        if (trackedMoves > 0) {
+            lastTrackedToken = moveLog.getToken(trackedMoves - 1);
+        }
+    }
+
+    /**
+     * Counts the threats again from the board and the hands of the players
+     */
+    private void rebuild(Game game) {
+        trackedGame = game;
+        me = game.getListOfPlayers().indexOf(this);
+        Board board = game.getBoard();
+        int numberOfIds = board.getNumberOfIds();
+        firstNodes = new int[numberOfIds];
+        secondNodes = new int[numberOfIds];
+        int numberOfNodes = 0;
+        for (int id = 0; id < numberOfIds; ++id) {
+            CliqueGameToken edge = (CliqueGameToken) board.tokenOf(id);
+            firstNodes[id] = edge.getFirstNode().getLabel() - 1;
+            secondNodes[id] = edge.getSecondNode().getLabel() - 1;
+            numberOfNodes = Math.max(numberOfNodes, Math.max(firstNodes[id], secondNodes[id]) + 1);
+        }
+
+        BitSetGraph edges = new BitSetGraph(numberOfNodes);
+        for (Token token : board.getTokens()) {
+            int id = board.idOf(token);
+            edges.addEdge(firstNodes[id], secondNodes[id]);
+        }
+        for (int player = 0; player < game.getPlayersTokens().size(); ++player) {
+            for (Token token : game.getPlayersTokens().get(player)) {
+                int id = board.idOf(token);
+                edges.addEdge(firstNodes[id], secondNodes[id]);
+            }
+        }
+
+        threats = new CliqueThreats(edges);
+        for (int player = 0; player < game.getPlayersTokens().size(); ++player) {
+            for (Token token : game.getPlayersTokens().get(player)) {
+                take(player, board.idOf(token));
+            }
+        }
+        trackedMoves = game.getMoveLog().size();
+    }
+
+    private void take(int player, int token) {
+        threats.take(firstNodes[token], secondNodes[token],
+                player == me ? CliqueThreats.MAKER : CliqueThreats.BREAKER);
+    }
+
+    /**
+     * @return the id of the chosen token
+     */
+    private int choose(Position position, int objective) {
+        int needed = Math.max(0, objective - 2);
+        List<Integer> winningCandidates = new ArrayList<>();
+        List<Integer> losingCandidates = new ArrayList<>();
+        int best = -1;
+        long bestThreat = -1;
+        for (int i = 0; i < position.getNumberOfAvailableTokens(); ++i) {
+            int id = position.getAvailableToken(i);
+            int u = firstNodes[id];
+            int v = secondNodes[id];
+            if (threats.getTriangles(CliqueThreats.MAKER, 2, u, v) >= needed) {
+                winningCandidates.add(id);
+            }
+            if (threats.getTriangles(CliqueThreats.BREAKER, 2, u, v) >= needed) {
+                losingCandidates.add(id);
+            }
+
+            long threat = threats.potential(CliqueThreats.MAKER, u, v) + threats.potential(CliqueThreats.BREAKER, u, v);
+            if (threat > bestThreat || (threat == bestThreat && id < best)) {
+                bestThreat = threat;
+                best = id;
+            }
+        }
+
+        for (int id : winningCandidates) {
+            if (position.winsWith(me, id)) {
+                return id;
+            }
+        }
+        for (int id : losingCandidates) {
+            for (int player = 0; player < position.getNumberOfPlayers(); ++player) {
+                if (player != me && position.winsWith(player, id)) {
+                    return id;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,81 @@
+package entities.players;
+
+import entities.Board;
+import entities.games.Game;
+import entities.games.Position;
+import entities.players.search.EndgameSolver;
+import entities.players.search.EndgameTable;
+import entities.tokens.Token;
+import exceptions.UnsolvableGameException;
+import lombok.Getter;
+
+/**
+ * This player plays a game solved by
+ * {@link EndgameSolver}: a move is one lookup in the table of the game.
+ * The solver does not store every reachable position (for instance
+ * the positions after an opponent ignored a threat), so a position
+ * which is not in the table is solved on demand, against the table.
+ * Only if that fails, or if the table was solved for another game,
+ * he takes a token which wins at once, or else a token with which
+ * an opponent would win (see {@link Position#winsWith}),
+ * or else the first token of the board.
+ *
+ * @author Ioan Sava
+ */
+public class EndgamePlayer extends Player {
+    @Getter
+    private final EndgameTable table;
+
+    public EndgamePlayer(String name, EndgameTable table) {
+        super(name);
+        this.table = table;
+    }
+
+    @Override
+    protected Token chooseToken() {
+        Game game = getGame();
+        Board board = game.getBoard();
+        boolean solved;
+        int me;
+        long key;
+        Position position;
+        synchronized (game) {
+            solved = table.matches(game) && game.getListOfPlayers().size() == 2;
+            me = game.getListOfPlayers().indexOf(this);
+            key = EndgameTable.positionOf(game, me);
+            if (solved && table.getValue(key) != EndgameTable.UNKNOWN) {
+                Token token = board.tokenOf(table.getMove(key));
+                if (board.contains(token)) {
+                    return token;
+                }
+            }
+            position = game.getPosition(me);
+        }
+
+        // The position is solved on a copy, without holding the game
+        if (solved) {
+            try {
+                return board.tokenOf(EndgameSolver.solveMove(position, key, table));
+            } catch (UnsolvableGameException exception) {
+                // Too many positions to solve during a move
+            }
+        }
+        return board.tokenOf(fallbackMove(position, me));
+    }
+
+    private static int fallbackMove(Position position, int me) {
+        int threat = -1;
+        for (int i = 0; i < position.getNumberOfAvailableTokens(); ++i) {
+            int token = position.getAvailableToken(i);
+            if (position.winsWith(me, token)) {
+                return token;
+            }
+            for (int player = 0; threat == -1 && player < position.getNumberOfPlayers(); ++player) {
+                if (player != me && position.winsWith(player, token)) {
+                    threat = token;
+                }
+            }
+        }
+        return threat != -1 ? threat : position.getAvailableToken(0);
+    }
+}
@@ -2,7 +2,6 @@ package entities.players;
 
 import entities.tokens.Token;
 
-import java.util.Iterator;
 import java.util.Scanner;
 
 /**
@@ -24,15 +23,11 @@ public final class ManualPlayer extends Player {
     protected Token chooseToken() {
         Scanner scanner = new Scanner(System.in);
         int tokenIndex = scanner.nextInt();
-        while (tokenIndex < 0 || tokenIndex >= getGame().getBoard().getTokens().size()) {
+        while (tokenIndex < 0 || tokenIndex >= getGame().getBoard().getNumberOfTokens()) {
             System.out.println("Invalid token. Choose another one");
             tokenIndex = scanner.nextInt();
         }
 
-        Iterator<Token> iterator = getGame().getBoard().getTokens().iterator();
-        for (int i = 0; i < tokenIndex; ++i) {
-            iterator.next();
-        }
-        return iterator.next();
+        return getGame().getBoard().getToken(tokenIndex);
     }
 }
@@ -0,0 +1,180 @@
+package entities.players;
+
+import entities.games.Game;
+import entities.games.Position;
+import entities.players.search.MonteCarloNode;
+import entities.tokens.Token;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This player runs a Monte Carlo tree search until his time
+ * for the move runs out, and takes the token which was explored most.
+ * Several threads grow the same tree at once (tree parallelism):
+ * the statistics of the nodes are updated without locks and
+ * every thread leaves a virtual loss on the nodes it passes through,
+ * so that the threads spread over different lines of play.
+ * Each playout works on its own copy of the position
+ * (see {@link Game#getPosition(int)}), so the game itself
+ * is locked only while the root position is copied.
+ *
+ * @author Ioan Sava
+ */
+public class MonteCarloPlayer extends Player {
+    private static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+
+    /**
+     * Time limit for choosing a token, in milliseconds
+     */
+    @Getter
+    private final long moveTime;
+
+    @Getter
+    private final int numberOfThreads;
+
+    /**
+     * The weight of the exploration term of UCT
+     */
+    @Getter
+    private final double exploration;
+
+    /**
+     * Number of playouts of the last search
+     */
+    @Getter
+    private volatile long playouts;
+
+    /**
+     * Searches on all the available processors
+     */
+    public MonteCarloPlayer(String name, long moveTime) {
+        this(name, moveTime, Runtime.getRuntime().availableProcessors());
+    }
+
+    public MonteCarloPlayer(String name, long moveTime, int numberOfThreads) {
+        this(name, moveTime, numberOfThreads, DEFAULT_EXPLORATION);
+    }
+
+    public MonteCarloPlayer(String name, long moveTime, int numberOfThreads, double exploration) {
+        super(name);
+        this.moveTime = moveTime;
+        this.numberOfThreads = Math.max(1, numberOfThreads);
+        this.exploration = exploration;
+    }
+
+    /**
+     * Runs the search threads other than the thread of the player.
+     * It is shared by every Monte Carlo player, so the number of threads
+     * does not grow with the number of players; when more searches run
+     * at once than there are processors, they share the workers.
+     */
+    private static final class Workers {
+        private static final AtomicInteger NUMBER_OF_THREADS = new AtomicInteger();
+
+        static final ExecutorService POOL = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), runnable -> {
+                    Thread thread = new Thread(runnable, "monte-carlo-search-" + NUMBER_OF_THREADS.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    protected Token chooseToken() {
+        Game game = getGame();
+        int me = game.getListOfPlayers().indexOf(this);
+        Position root;
+        synchronized (game) {
+            root = game.getPosition(me);
+        }
+        if (root.getNumberOfAvailableTokens() == 1) {
+            return game.getBoard().tokenOf(root.getAvailableToken(0));
+        }
+
+        MonteCarloNode rootNode = new MonteCarloNode(-1, -1);
+        long deadline = System.nanoTime() + moveTime * 1_000_000;
+        List<Future<Long>> searches = new ArrayList<>();
+        for (int i = 1; i < numberOfThreads; ++i) {
+            searches.add(Workers.POOL.submit(() -> search(root, rootNode, deadline, 0)));
+        }
+
+        // The root must be expanded to choose a move
+        long total = search(root, rootNode, deadline, 1);
+        for (Future<Long> search : searches) {
+            try {
+                total += search.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // A search still waiting for a worker is not needed any more
+                search.cancel(true);
+            } catch (InterruptedException e) {
+                search.cancel(true);
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        playouts = total;
+
+        return game.getBoard().tokenOf(rootNode.mostVisitedChild().getMove());
+    }
+
+    /**
+     * Runs playouts until the deadline, at least the given number of them.
+     *
+     * @return the number of playouts
+     */
+    private long search(Position root, MonteCarloNode rootNode, long deadline, int minimumPlayouts) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        MonteCarloNode[] path = new MonteCarloNode[root.getNumberOfAvailableTokens() + 1];
+        long count = 0;
+        while (count < minimumPlayouts || System.nanoTime() < deadline) {
+            playout(root.copy(), rootNode, path, random);
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * Selects a path through the tree, down to a node
+     * which was not visited before, then plays at random from its leaf
+     * and gives the reward to every node of the path.
+     */
+    private void playout(Position position, MonteCarloNode node, MonteCarloNode[] path, ThreadLocalRandom random) {
+        int length = 0;
+        path[length++] = node;
+        node.addVisit();
+        // The root is always expanded
+        boolean visitedBefore = true;
+        while (visitedBefore && !position.isOver()) {
+            if (node.getChildren() == null) {
+                node.expand(children(position));
+            }
+
+            node = node.selectChild(exploration);
+            position.play(node.getMove());
+            path[length++] = node;
+            visitedBefore = node.addVisit() > 0;
+        }
+
+        int winner = position.playRandomly(random);
+        for (int i = 1; i < length; ++i) {
+            if (winner == -1) {
+                path[i].addReward(MonteCarloNode.DRAW);
+            } else if (winner == path[i].getPlayer()) {
+                path[i].addReward(MonteCarloNode.WIN);
+            }
+        }
+    }
+
+    private static MonteCarloNode[] children(Position position) {
+        MonteCarloNode[] children = new MonteCarloNode[position.getNumberOfAvailableTokens()];
+        for (int i = 0; i < children.length; ++i) {
+            children[i] = new MonteCarloNode(position.getAvailableToken(i), position.getTurn());
+        }
+        return children;
+    }
+}
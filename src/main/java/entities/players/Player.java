@@ -1,6 +1,8 @@
 package entities.players;
 
 import entities.games.Game;
+import entities.metrics.GameMetrics;
+import entities.players.search.OpeningBook;
 import entities.tokens.Token;
 import exceptions.InvalidTokenValueException;
 import lombok.*;
@@ -19,6 +21,13 @@ public abstract class Player implements Runnable {
     private String name;
     private Game game;
 
+    /**
+     * If set, the player takes the moves of the book
+     * while the game is in the book, without choosing them
+     */
+    @ToString.Exclude
+    private OpeningBook openingBook;
+
     public Player(String name) {
         this.name = name;
     }
@@ -34,30 +43,39 @@ public abstract class Player implements Runnable {
      *
      * @throws InvalidTokenValueException in case of invalid token
      */
-    protected void extractTokenFromBoard() throws InvalidTokenValueException {
-        System.out.println("Choose a token ");
-        Token token = chooseToken();
-
-        System.out.println("Player " + getName() + " selected the following token: " + token);
-        game.getBoard().removeToken(token);
-        game.addTokenToPlayer(this, token);
+    public void extractTokenFromBoard() throws InvalidTokenValueException {
+        long start = GameMetrics.now();
+        Token token = openingBook == null ? null : openingBook.choose(game, game.getListOfPlayers().indexOf(this));
+        if (token == null) {
+            token = chooseToken();
+        }
+        GameMetrics.recordChooseToken(game, this, start);
+        if (game.takeToken(this, token)) {
+            game.getListener().tokenPicked(game, this, token);
+        }
     }
 
     /**
-     * Wait-notify approach in order to
-     * make sure that players wait their turns
+     * The player thread is parked until its turn comes.
+     * Only the next player is woken up after each move.
      */
     protected void waitTurn(int playerIndex) {
-        synchronized (game) {
-            game.notifyAll();
-            while (game.getCurrentTurn() != playerIndex && game.getCurrentTurn() != -1) {
-                try {
-                    game.wait();
-                } catch (InterruptedException exception) {
-                    exception.printStackTrace();
-                }
-            }
+        game.awaitTurn(playerIndex);
+    }
+
+    /**
+     * The player extracts one token from the board
+     * and then the turn is passed to the next player.
+     * It should be called only during the player's turn.
+     */
+    public void playTurn() {
+        GameMetrics.recordTurnHandoff(game, this, game.getTurnStartTime());
+        try {
+            extractTokenFromBoard();
+        } catch (InvalidTokenValueException e) {
+            e.printStackTrace();
         }
+        game.update();
     }
 
     /**
@@ -73,12 +91,7 @@ public abstract class Player implements Runnable {
             if (game.getCurrentTurn() == -1) {
                 running = false;
             } else {
-                try {
-                    extractTokenFromBoard();
-                } catch (InvalidTokenValueException e) {
-                    e.printStackTrace();
-                }
-                game.update();
+                playTurn();
             }
         }
     }
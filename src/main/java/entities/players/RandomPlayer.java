@@ -2,8 +2,7 @@ package entities.players;
 
 import entities.tokens.Token;
 
-import java.util.Iterator;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This player will choose tokens
@@ -22,13 +21,6 @@ public class RandomPlayer extends Player {
      */
     @Override
     protected Token chooseToken() {
-        int numberOfTokens = getGame().getBoard().getTokens().size();
-        Random random = new Random();
-        int randomToken = random.nextInt(numberOfTokens);
-        Iterator<Token> iterator = getGame().getBoard().getTokens().iterator();
-        for (int i = 0; i < randomToken; ++i) {
-            iterator.next();
-        }
-        return iterator.next();
+        return getGame().getBoard().getRandomToken(ThreadLocalRandom.current());
     }
 }
@@ -4,8 +4,7 @@ import entities.tokens.ArithmeticProgressionToken;
 import entities.tokens.Token;
 import exceptions.InvalidTokenValueException;
 
-import java.util.Iterator;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * A smart player should try to extend its
@@ -24,17 +23,10 @@ public class SmartPlayer extends Player {
      */
     @Override
     protected Token chooseToken() throws InvalidTokenValueException {
-        if (getGame().getBoard().getTokens().contains(new ArithmeticProgressionToken(0))) {
+        if (getGame().getBoard().contains(new ArithmeticProgressionToken(0))) {
             return new ArithmeticProgressionToken(0);
         } else {
-            int numberOfTokens = getGame().getBoard().getTokens().size();
-            Random random = new Random();
-            int randomToken = random.nextInt(numberOfTokens);
-            Iterator<Token> iterator = getGame().getBoard().getTokens().iterator();
-            for (int i = 0; i < randomToken; ++i) {
-                iterator.next();
-            }
-            return iterator.next();
+            return getGame().getBoard().getRandomToken(ThreadLocalRandom.current());
         }
     }
 }
@@ -0,0 +1,142 @@
+package entities.players.search;
+
+import entities.graphs.BitSetGraph;
+
+/**
+ * Threat counts of a clique game between a maker and a breaker.
+ * For every free edge, it counts the triangles through the edge
+ * which a side can still complete (none of their edges belongs
+ * to the other side), grouped by the number of their edges
+ * which the side already holds (0, 1 or 2).
+ * Every clique is built from such triangles, and an edge can
+ * complete a k-clique of a side only if the side holds both other
+ * edges of at least k - 2 triangles through it.
+ * <p>
+ * Taking an edge (a, b) only changes the triangles (a, b, w),
+ * so it updates the counts of the edges (a, w) and (b, w):
+ * O(n) work per move, however many cliques the graph has.
+ *
+ * @author Ioan Sava
+ */
+public class CliqueThreats {
+    public static final int MAKER = 0;
+    public static final int BREAKER = 1;
+
+    private static final byte FREE = 2;
+    private static final byte MISSING = 3;
+
+    private final int numberOfVertices;
+
+    /**
+     * The side which holds each edge, FREE if the edge is
+     * still on the board or MISSING if it is not part of the game.
+     * An edge (u, v) with u < v has the index u * n + v.
+     */
+    private final byte[] owners;
+
+    /**
+     * counts[3 * side + j][edge] is the number of triangles through
+     * the edge, alive for the side, of which the side holds j edges
+     */
+    private final int[][] counts = new int[6][];
+
+    /**
+     * @param edges the edges of the game, all of them free
+     */
+    public CliqueThreats(BitSetGraph edges) {
+        numberOfVertices = edges.getNumberOfVertices();
+        owners = new byte[numberOfVertices * numberOfVertices];
+        for (int i = 0; i < counts.length; ++i) {
+            counts[i] = new int[owners.length];
+        }
+
+        long[] commonNeighbours = edges.newVertexSet();
+        for (int u = 0; u < numberOfVertices; ++u) {
+            for (int v = u + 1; v < numberOfVertices; ++v) {
+                int edge = u * numberOfVertices + v;
+                if (edges.containsEdge(u, v)) {
+                    owners[edge] = FREE;
+                    edges.commonNeighbours(u, v, commonNeighbours);
+                    int triangles = BitSetGraph.popcount(commonNeighbours);
+                    counts[3 * MAKER][edge] = triangles;
+                    counts[3 * BREAKER][edge] = triangles;
+                } else {
+                    owners[edge] = MISSING;
+                }
+            }
+        }
+    }
+
+    private int edge(int u, int v) {
+        return u < v ? u * numberOfVertices + v : v * numberOfVertices + u;
+    }
+
+    public int getNumberOfVertices() {
+        return numberOfVertices;
+    }
+
+    public boolean isFree(int u, int v) {
+        return u != v && owners[edge(u, v)] == FREE;
+    }
+
+    /**
+     * Number of triangles through the edge (u, v)
+     * which the side can still complete and
+     * of which it holds the given number of edges
+     */
+    public int getTriangles(int side, int heldEdges, int u, int v) {
+        return counts[3 * side + heldEdges][edge(u, v)];
+    }
+
+    /**
+     * Erdos-Selfridge potential of the triangles through the edge
+     * (u, v) for a side: a triangle counts 2^j if the side holds j of
+     * its edges, so the closer triangles weigh more.
+     */
+    public long potential(int side, int u, int v) {
+        int edge = edge(u, v);
+        return counts[3 * side][edge] + 2L * counts[3 * side + 1][edge] + 4L * counts[3 * side + 2][edge];
+    }
+
+    /**
+     * The side takes the free edge (a, b)
+     */
+    public void take(int a, int b, int side) {
+        int taken = edge(a, b);
+        if (owners[taken] != FREE) {
+            return;
+        }
+
+        for (int w = 0; w < numberOfVertices; ++w) {
+            if (w != a && w != b) {
+                int first = edge(a, w);
+                int second = edge(b, w);
+                update(first, second, side);
+                update(second, first, side);
+            }
+        }
+        owners[taken] = (byte) side;
+    }
+
+    /**
+     * The triangle formed by the taken edge, the given free edge and
+     * the other edge gains an edge of the side and is lost by the other side.
+     */
+    private void update(int edge, int otherEdge, int side) {
+        int owner = owners[otherEdge];
+        if (owners[edge] != FREE || owner == MISSING) {
+            return;
+        }
+
+        int otherSide = 1 - side;
+        if (owner != otherSide) {
+            int held = owner == side ? 1 : 0;
+            --counts[3 * side + held][edge];
+            ++counts[3 * side + held + 1][edge];
+        }
+        if (owner != side) {
+            int held = owner == otherSide ? 1 : 0;
+            --counts[3 * otherSide + held][edge];
+        }
+    }
+}
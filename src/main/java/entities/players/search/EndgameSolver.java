@@ -0,0 +1,292 @@
+package entities.players.search;
+
+import entities.games.Game;
+import entities.games.Position;
+import entities.tokens.Token;
+import exceptions.UnsolvableGameException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Solves a two-player game with a small board by negamax,
+ * so every position reachable from the current position of the game
+ * is solved once, together with its images by the symmetries
+ * of the board. The solved positions are kept in a hash table with
+ * open addressing, since they are a small part of the 3^n positions
+ * of the board, and are written to an {@link EndgameTable} at the end.
+ * The moves are made and unmade on one {@link Position},
+ * and the key of the position is updated with each move.
+ * A position missing from a table can also be solved on demand,
+ * in memory, looking up in the table the positions it reaches.
+ *
+ * @author Ioan Sava
+ */
+public class EndgameSolver {
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * A position solved on demand by a player must not
+     * take the memory of a whole game
+     */
+    private static final int MAXIMUM_CAPACITY_ON_DEMAND = 1 << 20;
+
+    private final Position position;
+    private final TokenSymmetries symmetries;
+
+    /**
+     * The table looked up before solving a position, or null
+     */
+    private final EndgameTable table;
+    private final int maximumCapacity;
+
+    /**
+     * The tokens of each player, a bit for each id
+     */
+    private final long[] hands = new long[2];
+
+    /**
+     * The moves to try at each depth
+     */
+    private final int[][] moves;
+
+    /**
+     * The keys of the solved positions and their entries,
+     * an entry being 0 for a free slot
+     */
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private byte[] entries = new byte[INITIAL_CAPACITY];
+    private int numberOfPositions;
+
+    /**
+     * The slot of a key is given by the highest bits
+     * of its product with 2^64 divided by the golden ratio
+     */
+    private int shift = Long.numberOfLeadingZeros(INITIAL_CAPACITY) + 1;
+
+    private EndgameSolver(Position position, TokenSymmetries symmetries, EndgameTable table,
+                          int maximumCapacity) {
+        this.position = position;
+        this.symmetries = symmetries;
+        this.table = table;
+        this.maximumCapacity = maximumCapacity;
+        moves = new int[position.getNumberOfAvailableTokens() + 1][position.getNumberOfAvailableTokens()];
+    }
+
+    /**
+     * Solves the game from its current position and writes the table to a file.
+     * The player to move is the current player, or the first player
+     * if the game was not started.
+     *
+     * @throws UnsolvableGameException if the game has not two players, has too many tokens
+     *                                 or has too many reachable positions
+     */
+    public static EndgameTable solve(Game game, Path path) throws UnsolvableGameException, IOException {
+        if (game.getListOfPlayers().size() != 2) {
+            throw new UnsolvableGameException("Only games with two players can be solved");
+        }
+        if (game.getBoard().getNumberOfIds() > EndgameTable.MAXIMUM_NUMBER_OF_TOKENS) {
+            throw new UnsolvableGameException("A game with more than " + EndgameTable.MAXIMUM_NUMBER_OF_TOKENS +
+                    " tokens cannot be solved");
+        }
+
+        int turn = Math.max(0, game.getCurrentTurn());
+        EndgameSolver solver;
+        synchronized (game) {
+            Position position = game.getPosition(turn);
+            solver = new EndgameSolver(position, new TokenSymmetries(position.getSymmetries()), null,
+                    MAXIMUM_CAPACITY);
+            for (int player = 0; player < 2; ++player) {
+                for (Token token : game.getPlayersTokens().get(player)) {
+                    solver.hands[player] |= 1L << game.getBoard().idOf(token);
+                }
+            }
+        }
+        if (!solver.position.isOver()) {
+            solver.solve(0);
+        }
+        solver.write(path, game);
+        return EndgameTable.open(path);
+    }
+
+    /**
+     * Solves a position which is not in a table. The positions it reaches
+     * are looked up in the table, and the solved positions are kept in memory only.
+     *
+     * @param position the position, with the player to move at its turn
+     * @param key      the key of the position for the player to move
+     *                 (see {@link EndgameTable#positionOf})
+     * @return the id of a best token to take
+     * @throws UnsolvableGameException if the position reaches too many unsolved positions
+     */
+    public static int solveMove(Position position, long key, EndgameTable table) throws UnsolvableGameException {
+        EndgameSolver solver = new EndgameSolver(position, table.getSymmetries(), table,
+                MAXIMUM_CAPACITY_ON_DEMAND);
+        int player = position.getTurn();
+        solver.hands[player] = key & 0xFFFFFFFFL;
+        solver.hands[1 - player] = key >>> 32;
+        solver.solve(0);
+
+        int symmetry = solver.symmetries.canonicalSymmetry(key);
+        int entry = solver.entries[solver.find(solver.symmetries.image(symmetry, key))];
+        return solver.symmetries.unmap(symmetry, (entry & 0xFF) >>> 2);
+    }
+
+    /**
+     * The value of the position for the player to move
+     */
+    private int solve(int depth) throws UnsolvableGameException {
+        int player = position.getTurn();
+        long key = EndgameTable.keyOf(hands[player], hands[1 - player]);
+        int symmetry = symmetries.canonicalSymmetry(key);
+        key = symmetries.image(symmetry, key);
+        int slot = find(key);
+        if (entries[slot] != 0) {
+            return entries[slot] & 3;
+        }
+        if (table != null && depth > 0) {
+            int value = table.valueOf(key);
+            if (value != EndgameTable.UNKNOWN) {
+                return value;
+            }
+        }
+
+        int[] movesAtDepth = moves[depth];
+        int numberOfMoves = position.getNumberOfAvailableTokens();
+        for (int i = 0; i < numberOfMoves; ++i) {
+            movesAtDepth[i] = position.getAvailableToken(i);
+        }
+
+        // A move which wins at once makes the other moves irrelevant
+        boolean canWin = position.canStillWin(player);
+        for (int i = 0; canWin && i < numberOfMoves; ++i) {
+            if (position.winsWith(player, movesAtDepth[i])) {
+                return put(key, EndgameTable.WIN, symmetries.map(symmetry, movesAtDepth[i]));
+            }
+        }
+        boolean opponentCanWin = position.canStillWin(1 - player);
+        if (!canWin && !opponentCanWin) {
+            return put(key, EndgameTable.DRAW, symmetries.map(symmetry, movesAtDepth[0]));
+        }
+        // Otherwise a token with which the opponent would win must be taken
+        int threat = -1;
+        for (int i = 0; opponentCanWin && i < numberOfMoves; ++i) {
+            if (position.winsWith(1 - player, movesAtDepth[i])) {
+                if (threat != -1) {
+                    return put(key, EndgameTable.LOSS, symmetries.map(symmetry, movesAtDepth[threat]));
+                }
+                threat = i;
+            }
+        }
+        if (threat != -1) {
+            movesAtDepth[0] = movesAtDepth[threat];
+            numberOfMoves = 1;
+        }
+
+        // A player who cannot win any more is content with a draw
+        int bestPossibleValue = canWin ? EndgameTable.WIN : EndgameTable.DRAW;
+        int bestValue = EndgameTable.UNKNOWN;
+        int bestMove = movesAtDepth[0];
+        for (int i = 0; i < numberOfMoves && bestValue != bestPossibleValue; ++i) {
+            int move = movesAtDepth[i];
+            position.play(move);
+            hands[player] |= 1L << move;
+            int value = position.isOver() ? EndgameTable.DRAW : opposite(solve(depth + 1));
+            hands[player] &= ~(1L << move);
+            position.undo();
+
+            if (rank(value) > rank(bestValue)) {
+                bestValue = value;
+                bestMove = move;
+            }
+        }
+        return put(key, bestValue, symmetries.map(symmetry, bestMove));
+    }
+
+    /**
+     * The slot of a key, or the free slot where it would be added
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+        while (entries[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int put(long key, int value, int move) throws UnsolvableGameException {
+        // The slot found before solving the position may have moved since
+        int slot = find(key);
+        keys[slot] = key;
+        entries[slot] = (byte) (move << 2 | value);
+        if (++numberOfPositions > keys.length / 4 * 3) {
+            grow();
+        }
+        return value;
+    }
+
+    private void grow() throws UnsolvableGameException {
+        if (keys.length == maximumCapacity) {
+            throw new UnsolvableGameException("The game has more than " + numberOfPositions +
+                    " reachable positions");
+        }
+        long[] oldKeys = keys;
+        byte[] oldEntries = entries;
+        keys = new long[2 * oldKeys.length];
+        entries = new byte[2 * oldEntries.length];
+        --shift;
+        for (int slot = 0; slot < oldKeys.length; ++slot) {
+            if (oldEntries[slot] != 0) {
+                int newSlot = find(oldKeys[slot]);
+                keys[newSlot] = oldKeys[slot];
+                entries[newSlot] = oldEntries[slot];
+            }
+        }
+    }
+
+    /**
+     * Writes the solved positions in the order of their keys
+     */
+    private void write(Path path, Game game) throws IOException {
+        long[] sortedKeys = new long[numberOfPositions];
+        int count = 0;
+        for (int slot = 0; slot < keys.length; ++slot) {
+            if (entries[slot] != 0) {
+                sortedKeys[count++] = keys[slot];
+            }
+        }
+        Arrays.sort(sortedKeys);
+        byte[] sortedEntries = new byte[numberOfPositions];
+        for (int i = 0; i < numberOfPositions; ++i) {
+            sortedEntries[i] = entries[find(sortedKeys[i])];
+        }
+        keys = null;
+        entries = null;
+        EndgameTable.write(path, game, symmetries, sortedKeys, sortedEntries, numberOfPositions);
+    }
+
+    private static int opposite(int value) {
+        if (value == EndgameTable.WIN) {
+            return EndgameTable.LOSS;
+        } else if (value == EndgameTable.LOSS) {
+            return EndgameTable.WIN;
+        }
+        return value;
+    }
+
+    private static int rank(int value) {
+        switch (value) {
+            case EndgameTable.WIN:
+                return 3;
+            case EndgameTable.DRAW:
+                return 2;
+            case EndgameTable.LOSS:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package entities.players.search;
+
+import entities.Board;
+import entities.games.Game;
+import entities.tokens.Token;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * The solved positions of a two-player game with a small board,
+ * stored in a file which is memory-mapped, so opening a table
+ * only maps it and the positions are read from the page cache.
+ * <p>
+ * Only the positions reached by {@link EndgameSolver} are stored,
+ * and a position shares its entry with its images by the symmetries
+ * of the board (see {@link entities.games.Position#getSymmetries()}).
+ * A position is seen by the player to move: its key has a bit
+ * for every token he holds, at the id of the token
+ * (see {@link Board#idOf}), and the bits of the tokens of his
+ * opponent 32 places higher. The file starts with a header which
+ * identifies the game and with the symmetries, followed by the
+ * smallest keys of the positions in ascending order, so a position
+ * is found by binary search, and by one byte for each key, the value
+ * for the player to move in the low 2 bits and the id of a best
+ * token in the other 6 bits.
+ *
+ * @author Ioan Sava
+ */
+public class EndgameTable {
+    public static final int UNKNOWN = 0;
+    public static final int WIN = 1;
+    public static final int LOSS = 2;
+    public static final int DRAW = 3;
+
+    /**
+     * The tokens of each player must fit in half of a key
+     */
+    public static final int MAXIMUM_NUMBER_OF_TOKENS = 32;
+
+    private static final int MAGIC = 0x50474554;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int KEY_SIZE = Long.BYTES;
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    private final int numberOfTokens;
+    private final int objective;
+    private final long fingerprint;
+    private final long numberOfPositions;
+    private final TokenSymmetries symmetries;
+
+    /**
+     * The keys and then the entries, in mappings of at most 1 GB each.
+     * A mapping holds a whole number of keys, since its size
+     * is a multiple of the size of a key.
+     */
+    private final MappedByteBuffer[] segments;
+
+    private EndgameTable(int numberOfTokens, int objective, long fingerprint, long numberOfPositions,
+                         TokenSymmetries symmetries, MappedByteBuffer[] segments) {
+        this.numberOfTokens = numberOfTokens;
+        this.objective = objective;
+        this.fingerprint = fingerprint;
+        this.numberOfPositions = numberOfPositions;
+        this.symmetries = symmetries;
+        this.segments = segments;
+    }
+
+    /**
+     * Writes the positions solved by {@link EndgameSolver} for a game
+     *
+     * @param keys    the smallest keys of the positions, in ascending order
+     * @param entries the entry of each key
+     */
+    static void write(Path path, Game game, TokenSymmetries symmetries, long[] keys, byte[] entries,
+                      int numberOfPositions) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(0);
+            FileChannel channel = file.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            buffer.putInt(MAGIC).putShort((short) VERSION).putShort((short) game.getBoard().getNumberOfIds())
+                    .putInt(game.getObjective()).putLong(fingerprint(game)).putLong(numberOfPositions)
+                    .putInt(symmetries.size());
+            for (int[] permutation : symmetries.getPermutations()) {
+                for (int token : permutation) {
+                    if (!buffer.hasRemaining()) {
+                        writeAll(channel, buffer);
+                    }
+                    buffer.put((byte) token);
+                }
+            }
+            for (int i = 0; i < numberOfPositions; ++i) {
+                if (buffer.remaining() < KEY_SIZE) {
+                    writeAll(channel, buffer);
+                }
+                buffer.putLong(keys[i]);
+            }
+            for (int i = 0; i < numberOfPositions; ++i) {
+                if (!buffer.hasRemaining()) {
+                    writeAll(channel, buffer);
+                }
+                buffer.put(entries[i]);
+            }
+            writeAll(channel, buffer);
+            channel.force(true);
+        }
+    }
+
+    private static void writeAll(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Maps a table written before
+     *
+     * @throws IOException if the file cannot be read or is not a table
+     */
+    public static EndgameTable open(Path path) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            FileChannel channel = file.getChannel();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getShort() != VERSION) {
+                throw new IOException(path + " is not an endgame table");
+            }
+
+            int numberOfTokens = header.getShort();
+            int objective = header.getInt();
+            long fingerprint = header.getLong();
+            long numberOfPositions = header.getLong();
+            int numberOfSymmetries = header.getInt();
+            long symmetriesSize = (long) numberOfSymmetries * numberOfTokens;
+            if (numberOfTokens < 0 || numberOfTokens > MAXIMUM_NUMBER_OF_TOKENS || numberOfPositions < 0 ||
+                    numberOfSymmetries <= 0 || symmetriesSize > Integer.MAX_VALUE ||
+                    channel.size() < HEADER_SIZE + symmetriesSize + (KEY_SIZE + 1) * numberOfPositions) {
+                throw new IOException(path + " is truncated");
+            }
+
+            ByteBuffer permutations = ByteBuffer.allocate((int) symmetriesSize);
+            while (permutations.hasRemaining()) {
+                if (channel.read(permutations, HEADER_SIZE + permutations.position()) < 0) {
+                    throw new IOException(path + " is truncated");
+                }
+            }
+            permutations.flip();
+            int[][] symmetries = new int[numberOfSymmetries][numberOfTokens];
+            for (int[] permutation : symmetries) {
+                for (int token = 0; token < numberOfTokens; ++token) {
+                    permutation[token] = permutations.get();
+                    if (permutation[token] < 0 || permutation[token] >= numberOfTokens) {
+                        throw new IOException(path + " is not an endgame table");
+                    }
+                }
+            }
+            return new EndgameTable(numberOfTokens, objective, fingerprint, numberOfPositions,
+                    new TokenSymmetries(symmetries),
+                    map(channel, HEADER_SIZE + symmetriesSize, (KEY_SIZE + 1) * numberOfPositions));
+        }
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, long offset, long size) throws IOException {
+        MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS)];
+        for (int i = 0; i < segments.length; ++i) {
+            long start = (long) i << SEGMENT_BITS;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset + start,
+                    Math.min(size - start, SEGMENT_MASK + 1));
+        }
+        return segments;
+    }
+
+    /**
+     * The key of a position
+     *
+     * @param tokens         the tokens of the player to move, a bit for each id
+     * @param opponentTokens the tokens of his opponent
+     */
+    static long keyOf(long tokens, long opponentTokens) {
+        return tokens | opponentTokens << 32;
+    }
+
+    /**
+     * The key of the current position of a game with two players
+     *
+     * @param player the player to move
+     */
+    public static long positionOf(Game game, int player) {
+        Board board = game.getBoard();
+        long[] hands = new long[2];
+        for (int owner = 0; owner < game.getPlayersTokens().size(); ++owner) {
+            for (Token token : game.getPlayersTokens().get(owner)) {
+                hands[owner == player ? 0 : 1] |= 1L << board.idOf(token);
+            }
+        }
+        return keyOf(hands[0], hands[1]);
+    }
+
+    /**
+     * Identifies the type of the game, its objective
+     * and the tokens of its board, in the order of their ids
+     */
+    public static long fingerprint(Game game) {
+        Board board = game.getBoard();
+        long fingerprint = game.getClass().getName().hashCode();
+        fingerprint = fingerprint * 1_000_003 + game.getObjective();
+        for (int id = 0; id < board.getNumberOfIds(); ++id) {
+            fingerprint = fingerprint * 1_000_003 + board.tokenOf(id).toString().hashCode();
+        }
+        return fingerprint;
+    }
+
+    /**
+     * The table was solved for this game
+     */
+    public boolean matches(Game game) {
+        return game.getBoard().getNumberOfIds() == numberOfTokens && game.getObjective() == objective &&
+                fingerprint(game) == fingerprint;
+    }
+
+    public int getNumberOfTokens() {
+        return numberOfTokens;
+    }
+
+    public int getObjective() {
+        return objective;
+    }
+
+    public long getNumberOfPositions() {
+        return numberOfPositions;
+    }
+
+    TokenSymmetries getSymmetries() {
+        return symmetries;
+    }
+
+    private byte byteAt(long offset) {
+        return segments[(int) (offset >>> SEGMENT_BITS)].get((int) (offset & SEGMENT_MASK));
+    }
+
+    private long keyAt(long index) {
+        long offset = KEY_SIZE * index;
+        return segments[(int) (offset >>> SEGMENT_BITS)].getLong((int) (offset & SEGMENT_MASK));
+    }
+
+    /**
+     * The entry of the smallest key of a position, or 0 if it was not solved
+     */
+    private int entry(long position) {
+        long low = 0;
+        long high = numberOfPositions - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            long key = keyAt(middle);
+            if (key < position) {
+                low = middle + 1;
+            } else if (key > position) {
+                high = middle - 1;
+            } else {
+                return byteAt(KEY_SIZE * numberOfPositions + middle);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The value of a position given by its smallest key, or UNKNOWN
+     */
+    int valueOf(long key) {
+        return entry(key) & 3;
+    }
+
+    /**
+     * The value of the position for the player to move, or UNKNOWN
+     */
+    public int getValue(long position) {
+        return entry(symmetries.image(symmetries.canonicalSymmetry(position), position)) & 3;
+    }
+
+    /**
+     * The id of a best token to take in the position
+     */
+    public int getMove(long position) {
+        int symmetry = symmetries.canonicalSymmetry(position);
+        return symmetries.unmap(symmetry, (entry(symmetries.image(symmetry, position)) & 0xFF) >>> 2);
+    }
+}
@@ -0,0 +1,138 @@
+package entities.players.search;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Node of a Monte Carlo search tree, shared by several search threads
+ * without locks. The statistics of the node are packed in one long,
+ * the number of visits in the high half and the sum of the rewards
+ * in the low half, so they are always read and updated together.
+ * A visit is counted when a thread passes through the node
+ * and its reward only after the playout, so until then the
+ * visit counts as a loss (a virtual loss) and the other threads
+ * tend to explore different nodes.
+ *
+ * @author Ioan Sava
+ */
+public class MonteCarloNode {
+    /**
+     * The rewards are counted in half points:
+     * 2 for a win, 1 for a draw and 0 for a loss
+     */
+    public static final int WIN = 2;
+    public static final int DRAW = 1;
+    public static final int LOSS = 0;
+
+    private static final long ONE_VISIT = 1L << 32;
+    private static final long REWARD_MASK = ONE_VISIT - 1;
+
+    private static final AtomicLongFieldUpdater<MonteCarloNode> STATISTICS =
+            AtomicLongFieldUpdater.newUpdater(MonteCarloNode.class, "statistics");
+    private static final AtomicReferenceFieldUpdater<MonteCarloNode, MonteCarloNode[]> CHILDREN =
+            AtomicReferenceFieldUpdater.newUpdater(MonteCarloNode.class, MonteCarloNode[].class, "children");
+
+    /**
+     * The id of the token taken to reach this node, or -1 for the root
+     */
+    private final int move;
+
+    /**
+     * The player who took the token
+     */
+    private final int player;
+
+    private volatile long statistics;
+    private volatile MonteCarloNode[] children;
+
+    public MonteCarloNode(int move, int player) {
+        this.move = move;
+        this.player = player;
+    }
+
+    public int getMove() {
+        return move;
+    }
+
+    public int getPlayer() {
+        return player;
+    }
+
+    public int getVisits() {
+        return (int) (statistics >>> 32);
+    }
+
+    public long getReward() {
+        return statistics & REWARD_MASK;
+    }
+
+    /**
+     * Counts a visit which has no reward yet
+     *
+     * @return the number of visits before this one
+     */
+    public int addVisit() {
+        return (int) (STATISTICS.getAndAdd(this, ONE_VISIT) >>> 32);
+    }
+
+    public void addReward(int reward) {
+        STATISTICS.getAndAdd(this, reward);
+    }
+
+    public MonteCarloNode[] getChildren() {
+        return children;
+    }
+
+    /**
+     * Sets the children of the node, unless another thread already did.
+     *
+     * @return the children of the node
+     */
+    public MonteCarloNode[] expand(MonteCarloNode[] newChildren) {
+        if (CHILDREN.compareAndSet(this, null, newChildren)) {
+            return newChildren;
+        }
+        return children;
+    }
+
+    /**
+     * The child with the best upper confidence bound (UCT).
+     * Children which were never visited come first.
+     *
+     * @param exploration the weight of the exploration term
+     */
+    public MonteCarloNode selectChild(double exploration) {
+        MonteCarloNode[] nodes = children;
+        double logarithmOfVisits = Math.log(Math.max(1, getVisits()));
+        MonteCarloNode best = nodes[0];
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (MonteCarloNode child : nodes) {
+            long childStatistics = child.statistics;
+            int visits = (int) (childStatistics >>> 32);
+            if (visits == 0) {
+                return child;
+            }
+
+            double value = (childStatistics & REWARD_MASK) / (double) (WIN * visits) +
+                    exploration * Math.sqrt(logarithmOfVisits / visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The child which was visited most often
+     */
+    public MonteCarloNode mostVisitedChild() {
+        MonteCarloNode best = null;
+        for (MonteCarloNode child : children) {
+            if (best == null || child.getVisits() > best.getVisits()) {
+                best = child;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,289 @@
+package entities.players.search;
+
+import entities.games.Game;
+import entities.tokens.ArithmeticProgressionToken;
+import entities.tokens.Token;
+import entities.tokens.clique_token.CliqueGameToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics of the first moves of many games, written by
+ * {@link OpeningBookBuilder}, which tell the best known move
+ * of an early position without any search.
+ * <p>
+ * The file holds entries of (position key, move, plays, score),
+ * sorted by key and move. It is not loaded: the entries of a
+ * position are found by a binary search in the file and the
+ * positions looked up recently are kept in an LRU cache.
+ * <p>
+ * The key of a position is seen by the player to move and depends
+ * on the contents of the tokens, not on their ids, so the same
+ * position is found in games with different boards.
+ * A move is stored as the code of its token (see {@link #codeOf}).
+ *
+ * @author Ioan Sava
+ */
+public class OpeningBook implements Closeable {
+    /**
+     * "PGB2": the books of the first format, whose codes
+     * were hashes of the tokens, are not read any more
+     */
+    static final int MAGIC = 0x50474232;
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 20;
+
+    static final int ON_BOARD = 0;
+    static final int MOVER = 1;
+    static final int OPPONENT = 2;
+
+    private static final int DEFAULT_CACHE_SIZE = 4096;
+    private static final int DEFAULT_MINIMUM_PLAYS = 16;
+
+    /**
+     * Number of entries read at once while the entries of a position are collected
+     */
+    private static final int ENTRIES_PER_READ = 32;
+
+    private static final int[] NO_MOVES = new int[0];
+
+    private final FileChannel channel;
+    private final long numberOfEntries;
+    private final int maximumPly;
+
+    /**
+     * A move is suggested only if it was played at least this many times
+     */
+    private final int minimumPlays;
+
+    /**
+     * The moves of the positions looked up recently,
+     * as triples of (code, plays, score)
+     */
+    private final Map<Long, int[]> cache;
+
+    public OpeningBook(Path path) throws IOException {
+        this(path, DEFAULT_CACHE_SIZE, DEFAULT_MINIMUM_PLAYS);
+    }
+
+    /**
+     * @throws IOException if the file cannot be read or is not an opening book
+     */
+    public OpeningBook(Path path, int cacheSize, int minimumPlays) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            channel.close();
+            throw new IOException(path + " is not an opening book");
+        }
+        maximumPly = header.getInt();
+        numberOfEntries = header.getLong();
+        this.minimumPlays = minimumPlays;
+        cache = new LinkedHashMap<Long, int[]>(2 * cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public long getNumberOfEntries() {
+        return numberOfEntries;
+    }
+
+    /**
+     * The book holds only the positions before this many moves
+     */
+    public int getMaximumPly() {
+        return maximumPly;
+    }
+
+    /**
+     * The best move of the book for the player to move, or null
+     * if the position is not in the book or was not played often enough.
+     * Once the game is deeper than the book, it returns null at once,
+     * without looking up the position or locking the game.
+     * The game is locked only while the position is read,
+     * not while the book is read.
+     */
+    public Token choose(Game game, int player) {
+        if (game.getMoveLog().size() >= maximumPly) {
+            return null;
+        }
+        long key;
+        List<Token> tokens;
+        synchronized (game) {
+            key = keyOf(game, player);
+            tokens = new ArrayList<>(game.getBoard().getTokens());
+        }
+
+        int[] moves = movesOf(key);
+        int bestCode = 0;
+        long bestScore = -1;
+        int bestPlays = 0;
+        boolean found = false;
+        for (int i = 0; i < moves.length; i += 3) {
+            int plays = moves[i + 1];
+            if (plays < minimumPlays) {
+                continue;
+            }
+            // Compares the mean scores without dividing
+            long score = moves[i + 2];
+            if (!found || score * bestPlays > bestScore * plays ||
+                    (score * bestPlays == bestScore * plays && plays > bestPlays)) {
+                found = true;
+                bestCode = moves[i];
+                bestScore = moves[i + 2];
+                bestPlays = plays;
+            }
+        }
+        return found ? tokenWithCode(tokens, bestCode) : null;
+    }
+
+    /**
+     * The token with the given code, or null if there is none,
+     * or more than one, since then the move is not known
+     */
+    private static Token tokenWithCode(List<Token> tokens, int code) {
+        Token found = null;
+        for (Token token : tokens) {
+            if (codeOf(token) == code) {
+                if (found != null) {
+                    return null;
+                }
+                found = token;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The moves of a position, as triples of (code, plays, score)
+     */
+    public synchronized int[] movesOf(long key) {
+        int[] moves = cache.get(key);
+        if (moves == null) {
+            try {
+                moves = read(key);
+            } catch (IOException exception) {
+                moves = NO_MOVES;
+            }
+            cache.put(key, moves);
+        }
+        return moves;
+    }
+
+    private long keyAt(long entry, ByteBuffer buffer) throws IOException {
+        buffer.clear().limit(Long.BYTES);
+        channel.read(buffer, HEADER_SIZE + entry * ENTRY_SIZE);
+        return buffer.getLong(0);
+    }
+
+    private int[] read(long key) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRIES_PER_READ * ENTRY_SIZE);
+        long low = 0;
+        long high = numberOfEntries;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (keyAt(middle, buffer) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        int[] moves = NO_MOVES;
+        int numberOfMoves = 0;
+        for (long entry = low; entry < numberOfEntries; entry += ENTRIES_PER_READ) {
+            buffer.clear().limit((int) Math.min(ENTRIES_PER_READ, numberOfEntries - entry) * ENTRY_SIZE);
+            channel.read(buffer, HEADER_SIZE + entry * ENTRY_SIZE);
+            buffer.flip();
+            while (buffer.remaining() >= ENTRY_SIZE) {
+                if (buffer.getLong() != key) {
+                    return Arrays.copyOf(moves, 3 * numberOfMoves);
+                }
+                if (moves.length == 3 * numberOfMoves) {
+                    moves = Arrays.copyOf(moves, Math.max(12, 2 * moves.length));
+                }
+                moves[3 * numberOfMoves] = buffer.getInt();
+                moves[3 * numberOfMoves + 1] = buffer.getInt();
+                moves[3 * numberOfMoves + 2] = buffer.getInt();
+                ++numberOfMoves;
+            }
+        }
+        return Arrays.copyOf(moves, 3 * numberOfMoves);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * A code of the contents of a token, the same in every game:
+     * the value of an arithmetic progression token, and the labels
+     * of the nodes of an edge, 16 bits each, if they are at most 65536.
+     * Other tokens have a hash code, which is checked to be unique
+     * on the board before a move is suggested.
+     */
+    public static int codeOf(Token token) {
+        if (token instanceof ArithmeticProgressionToken) {
+            return ((ArithmeticProgressionToken) token).getValue();
+        }
+        if (token instanceof CliqueGameToken) {
+            int firstNode = ((CliqueGameToken) token).getFirstNode().getLabel() - 1;
+            int secondNode = ((CliqueGameToken) token).getSecondNode().getLabel() - 1;
+            if ((firstNode | secondNode) >>> 16 == 0) {
+                return firstNode << 16 | secondNode;
+            }
+        }
+        return token.toString().hashCode();
+    }
+
+    /**
+     * The key of a token in a given state (on the board, held by
+     * the player to move or by an opponent), mixed with SplitMix64
+     */
+    static long keyOf(Token token, int state) {
+        long key = (long) codeOf(token) * 3 + state;
+        key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+        return key ^ (key >>> 31);
+    }
+
+    /**
+     * The key of the type of the game and its objective
+     */
+    static long keyOf(Game game) {
+        return (long) game.getClass().getName().hashCode() * 0x9E3779B97F4A7C15L + game.getObjective();
+    }
+
+    /**
+     * The key of the current position of a game, for the player to move
+     */
+    public static long keyOf(Game game, int player) {
+        long key = keyOf(game);
+        for (Token token : game.getBoard().getTokens()) {
+            key ^= keyOf(token, ON_BOARD);
+        }
+        for (int owner = 0; owner < game.getPlayersTokens().size(); ++owner) {
+            int state = owner == player ? MOVER : OPPONENT;
+            for (Token token : game.getPlayersTokens().get(owner)) {
+                key ^= keyOf(token, state);
+            }
+        }
+        return key;
+    }
+}
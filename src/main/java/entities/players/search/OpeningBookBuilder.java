@@ -0,0 +1,149 @@
+package entities.players.search;
+
+import entities.games.Game;
+import entities.games.MoveLog;
+import entities.listeners.GameListener;
+import entities.players.Player;
+import entities.tokens.Token;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the statistics of the first moves of finished games
+ * and writes them as an {@link OpeningBook}.
+ * It listens to the games (see {@link Game#setListener}), so
+ * the games of a batch simulation can be added as they end,
+ * from any thread. For every position before the maximum ply,
+ * it counts how many times each move was played and its score
+ * for the player who made it: 2 for a win, 1 for a draw, 0 for a loss.
+ *
+ * @author Ioan Sava
+ */
+public class OpeningBookBuilder implements GameListener {
+    private final int maximumPly;
+
+    /**
+     * The statistics of each (position, move): plays and score
+     */
+    private final Map<Long, Map<Integer, long[]>> statistics = new HashMap<>();
+    private long numberOfGames;
+
+    public OpeningBookBuilder(int maximumPly) {
+        this.maximumPly = maximumPly;
+    }
+
+    public synchronized long getNumberOfGames() {
+        return numberOfGames;
+    }
+
+    @Override
+    public void gameOver(Game game, Player winner, int[] scores) {
+        add(game, winner == null ? -1 : game.getListOfPlayers().indexOf(winner));
+    }
+
+    /**
+     * Adds the moves of a finished game.
+     * The position before each move is rebuilt by taking back
+     * the moves of the game, which only changes the XOR of the keys.
+     *
+     * @param winner the order number of the winner, or -1 for a draw
+     */
+    public void add(Game game, int winner) {
+        MoveLog moveLog = game.getMoveLog();
+        int numberOfPlayers = game.getListOfPlayers().size();
+        long board = OpeningBook.keyOf(game);
+        long[] asMover = new long[numberOfPlayers];
+        long[] asOpponent = new long[numberOfPlayers];
+        long opponents = 0;
+        synchronized (game) {
+            for (Token token : game.getBoard().getTokens()) {
+                board ^= OpeningBook.keyOf(token, OpeningBook.ON_BOARD);
+            }
+            for (int player = 0; player < numberOfPlayers; ++player) {
+                for (Token token : game.getPlayersTokens().get(player)) {
+                    asMover[player] ^= OpeningBook.keyOf(token, OpeningBook.MOVER);
+                    asOpponent[player] ^= OpeningBook.keyOf(token, OpeningBook.OPPONENT);
+                }
+                opponents ^= asOpponent[player];
+            }
+
+            int numberOfMoves = moveLog.size();
+            int[] codes = new int[numberOfMoves];
+            for (int move = numberOfMoves - 1; move >= 0; --move) {
+                Token token = game.getBoard().tokenOf(moveLog.getToken(move));
+                int player = moveLog.getPlayer(move);
+                codes[move] = OpeningBook.codeOf(token);
+                board ^= OpeningBook.keyOf(token, OpeningBook.ON_BOARD);
+                asMover[player] ^= OpeningBook.keyOf(token, OpeningBook.MOVER);
+                asOpponent[player] ^= OpeningBook.keyOf(token, OpeningBook.OPPONENT);
+                opponents ^= OpeningBook.keyOf(token, OpeningBook.OPPONENT);
+            }
+
+            synchronized (this) {
+                ++numberOfGames;
+                for (int move = 0; move < Math.min(numberOfMoves, maximumPly); ++move) {
+                    Token token = game.getBoard().tokenOf(moveLog.getToken(move));
+                    int player = moveLog.getPlayer(move);
+                    long key = board ^ asMover[player] ^ opponents ^ asOpponent[player];
+                    long[] moveStatistics = statistics.computeIfAbsent(key, position -> new HashMap<>())
+                            .computeIfAbsent(codes[move], code -> new long[2]);
+                    ++moveStatistics[0];
+                    moveStatistics[1] += winner == player ? 2 : winner == -1 ? 1 : 0;
+
+                    board ^= OpeningBook.keyOf(token, OpeningBook.ON_BOARD);
+                    asMover[player] ^= OpeningBook.keyOf(token, OpeningBook.MOVER);
+                    asOpponent[player] ^= OpeningBook.keyOf(token, OpeningBook.OPPONENT);
+                    opponents ^= OpeningBook.keyOf(token, OpeningBook.OPPONENT);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the book, sorted by position key and move
+     */
+    public synchronized void write(Path path) throws IOException {
+        List<Long> keys = new ArrayList<>(statistics.keySet());
+        keys.sort(null);
+        long numberOfEntries = 0;
+        for (Map<Integer, long[]> moves : statistics.values()) {
+            numberOfEntries += moves.size();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            buffer.putInt(OpeningBook.MAGIC).putInt(maximumPly).putLong(numberOfEntries);
+            for (long key : keys) {
+                List<Integer> codes = new ArrayList<>(statistics.get(key).keySet());
+                codes.sort(null);
+                for (int code : codes) {
+                    if (buffer.remaining() < OpeningBook.ENTRY_SIZE) {
+                        flush(channel, buffer);
+                    }
+                    long[] moveStatistics = statistics.get(key).get(code);
+                    buffer.putLong(key).putInt(code)
+                            .putInt((int) Math.min(Integer.MAX_VALUE, moveStatistics[0]))
+                            .putInt((int) Math.min(Integer.MAX_VALUE, moveStatistics[1]));
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,109 @@
+package entities.players.search;
+
+/**
+ * The symmetries of a board (see {@link entities.games.Position#getSymmetries()})
+ * applied to the keys of an {@link EndgameTable}, so that a position
+ * and its images share one entry, the entry of their smallest key
+ * (compared as unsigned numbers).
+ * The image of a hand is built from a lookup table
+ * for each group of 4 bits of the hand.
+ *
+ * @author Ioan Sava
+ */
+class TokenSymmetries {
+    private static final int BITS_PER_GROUP = 4;
+    private static final int GROUP_MASK = (1 << BITS_PER_GROUP) - 1;
+
+    private final int[][] permutations;
+    private final int[][] inverses;
+
+    /**
+     * images[s][g][bits] is the image by the symmetry s
+     * of the tokens g * 4 to g * 4 + 3 given by the bits
+     */
+    private final int[][][] images;
+
+    TokenSymmetries(int[][] permutations) {
+        this.permutations = permutations;
+        int numberOfTokens = permutations[0].length;
+        int numberOfGroups = (numberOfTokens + BITS_PER_GROUP - 1) / BITS_PER_GROUP;
+        inverses = new int[permutations.length][numberOfTokens];
+        images = new int[permutations.length][numberOfGroups][GROUP_MASK + 1];
+        for (int symmetry = 0; symmetry < permutations.length; ++symmetry) {
+            for (int token = 0; token < numberOfTokens; ++token) {
+                inverses[symmetry][permutations[symmetry][token]] = token;
+            }
+            for (int group = 0; group < numberOfGroups; ++group) {
+                for (int bits = 1; bits <= GROUP_MASK; ++bits) {
+                    int lowestBit = Integer.numberOfTrailingZeros(bits);
+                    int token = group * BITS_PER_GROUP + lowestBit;
+                    int image = token < numberOfTokens ? 1 << permutations[symmetry][token] : 0;
+                    images[symmetry][group][bits] = images[symmetry][group][bits & bits - 1] | image;
+                }
+            }
+        }
+    }
+
+    int[][] getPermutations() {
+        return permutations;
+    }
+
+    int size() {
+        return permutations.length;
+    }
+
+    private int image(int[][] imagesOfGroups, long hand) {
+        int image = 0;
+        for (int group = 0; group < imagesOfGroups.length; ++group) {
+            image |= imagesOfGroups[group][(int) (hand >>> group * BITS_PER_GROUP) & GROUP_MASK];
+        }
+        return image;
+    }
+
+    /**
+     * The image of a key by a symmetry
+     */
+    long image(int symmetry, long key) {
+        return EndgameTable.keyOf(image(images[symmetry], key & 0xFFFFFFFFL) & 0xFFFFFFFFL,
+                image(images[symmetry], key >>> 32) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The symmetry which gives the smallest image of the key, comparing
+     * first the tokens of the opponent, so that the image of the tokens
+     * of the player to move is built only for the images which may be smaller
+     */
+    int canonicalSymmetry(long key) {
+        int best = 0;
+        int smallestOpponentTokens = (int) (key >>> 32);
+        int smallestTokens = (int) key;
+        for (int symmetry = 1; symmetry < permutations.length; ++symmetry) {
+            int opponentTokens = image(images[symmetry], key >>> 32);
+            int comparison = Integer.compareUnsigned(opponentTokens, smallestOpponentTokens);
+            if (comparison > 0) {
+                continue;
+            }
+            int tokens = image(images[symmetry], key & 0xFFFFFFFFL);
+            if (comparison < 0 || Integer.compareUnsigned(tokens, smallestTokens) < 0) {
+                smallestOpponentTokens = opponentTokens;
+                smallestTokens = tokens;
+                best = symmetry;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The image of a token by a symmetry
+     */
+    int map(int symmetry, int token) {
+        return permutations[symmetry][token];
+    }
+
+    /**
+     * The token whose image by a symmetry is the given token
+     */
+    int unmap(int symmetry, int token) {
+        return inverses[symmetry][token];
+    }
+}
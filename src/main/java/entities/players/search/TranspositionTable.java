@@ -0,0 +1,72 @@
+package entities.players.search;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of searched positions, indexed by
+ * their Zobrist hash. Each slot keeps one position; a new
+ * position replaces the old one only if it was searched
+ * at least as deep (depth-preferred replacement).
+ * An entry is packed in one long: the value, the depth,
+ * the type of bound and the best move.
+ *
+ * @author Ioan Sava
+ */
+public class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    private final long[] hashes;
+    private final long[] entries;
+    private final int mask;
+
+    /**
+     * @param sizeInBits the table has 2^sizeInBits slots
+     */
+    public TranspositionTable(int sizeInBits) {
+        hashes = new long[1 << sizeInBits];
+        entries = new long[1 << sizeInBits];
+        mask = (1 << sizeInBits) - 1;
+    }
+
+    public void clear() {
+        Arrays.fill(hashes, 0);
+        Arrays.fill(entries, 0);
+    }
+
+    /**
+     * @return the entry of the position or 0 if it is not in the table
+     */
+    public long probe(long hash) {
+        int slot = (int) hash & mask;
+        return hashes[slot] == hash ? entries[slot] : 0;
+    }
+
+    public void store(long hash, int depth, int bound, int value, int move) {
+        int slot = (int) hash & mask;
+        if (hashes[slot] == hash || entries[slot] == 0 || depth >= depth(entries[slot])) {
+            hashes[slot] = hash;
+            entries[slot] = (long) value << 32 | (long) (move + 1) << 10 | (long) depth << 2 | bound;
+        }
+    }
+
+    public static int value(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 2) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) entry & 3;
+    }
+
+    /**
+     * @return the best move of the position or -1
+     */
+    public static int move(long entry) {
+        return (int) ((entry >>> 10) & 0x3FFFFF) - 1;
+    }
+}
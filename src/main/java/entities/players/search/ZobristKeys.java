@@ -0,0 +1,45 @@
+package entities.players.search;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys used to hash the positions of a game.
+ * The hash of a position is the XOR of the keys of
+ * every (player, token) pair of the hands and the key
+ * of the player to move. The tokens left on the board
+ * follow from the hands, so they need no keys.
+ * A move changes the hash with three XORs.
+ *
+ * @author Ioan Sava
+ * @see <a href="https://en.wikipedia.org/wiki/Zobrist_hashing">https://en.wikipedia.org/wiki/Zobrist_hashing</a>
+ */
+public class ZobristKeys {
+    private final int numberOfTokens;
+    private final long[] tokenKeys;
+    private final long[] turnKeys;
+
+    public ZobristKeys(int numberOfPlayers, int numberOfTokens, long seed) {
+        this.numberOfTokens = numberOfTokens;
+        SplittableRandom random = new SplittableRandom(seed);
+        tokenKeys = new long[numberOfPlayers * numberOfTokens];
+        for (int i = 0; i < tokenKeys.length; ++i) {
+            tokenKeys[i] = random.nextLong();
+        }
+        turnKeys = new long[numberOfPlayers];
+        for (int i = 0; i < turnKeys.length; ++i) {
+            turnKeys[i] = random.nextLong();
+        }
+    }
+
+    public boolean fits(int numberOfPlayers, int numberOfTokens) {
+        return turnKeys.length == numberOfPlayers && this.numberOfTokens == numberOfTokens;
+    }
+
+    public long token(int player, int token) {
+        return tokenKeys[player * numberOfTokens + token];
+    }
+
+    public long turn(int player) {
+        return turnKeys[player];
+    }
+}
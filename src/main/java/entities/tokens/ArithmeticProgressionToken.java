@@ -1,6 +1,7 @@
 package entities.tokens;
 
 import exceptions.InvalidTokenValueException;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
@@ -12,6 +13,7 @@ import lombok.Getter;
  * @author Ioan Sava
  */
 @Getter
+@EqualsAndHashCode(callSuper = false)
 public class ArithmeticProgressionToken extends Token {
     private int value;
 
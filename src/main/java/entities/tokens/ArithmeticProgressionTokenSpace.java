@@ -0,0 +1,71 @@
+package entities.tokens;
+
+import exceptions.InvalidTokenValueException;
+
+import java.util.Arrays;
+
+/**
+ * The tokens of an arithmetic progression game with
+ * the given values, kept in a sorted array of ints:
+ * the id of a token is the index of its value,
+ * found by a binary search, and a token is created
+ * from its value only when it is needed.
+ *
+ * @author Ioan Sava
+ */
+public class ArithmeticProgressionTokenSpace implements TokenSpace {
+    private final int[] values;
+
+    /**
+     * @param values distinct values, in increasing order; the array is not copied
+     * @throws InvalidTokenValueException if a value is negative
+     */
+    public ArithmeticProgressionTokenSpace(int[] values) throws InvalidTokenValueException {
+        for (int i = 0; i < values.length; ++i) {
+            if (values[i] < 0) {
+                throw new InvalidTokenValueException();
+            }
+            if (i > 0 && values[i] <= values[i - 1]) {
+                throw new IllegalArgumentException("The values should be distinct and sorted");
+            }
+        }
+        this.values = values;
+    }
+
+    public int getValue(int id) {
+        return values[id];
+    }
+
+    @Override
+    public int idOf(Token token) {
+        if (!(token instanceof ArithmeticProgressionToken)) {
+            return -1;
+        }
+        int id = Arrays.binarySearch(values, ((ArithmeticProgressionToken) token).getValue());
+        return id >= 0 ? id : -1;
+    }
+
+    @Override
+    public int register(Token token) {
+        int id = idOf(token);
+        if (id == -1) {
+            throw new IllegalArgumentException(token + " is not a token of the game");
+        }
+        return id;
+    }
+
+    @Override
+    public Token tokenOf(int id) {
+        try {
+            return new ArithmeticProgressionToken(values[id]);
+        } catch (InvalidTokenValueException exception) {
+            // The values were checked when the space was created
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+}
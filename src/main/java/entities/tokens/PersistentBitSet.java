@@ -0,0 +1,197 @@
+package entities.tokens;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of integers between 0 and capacity - 1.
+ * The 64-bit words of the set are the leaves of a trie with
+ * 16 children per node, so changing a bit copies only the path
+ * from the root to its word (log16 of the number of words nodes),
+ * and the new set shares every other node with the old one.
+ * Empty subtrees are null, so sparse sets are small.
+ *
+ * @author Ioan Sava
+ */
+public final class PersistentBitSet {
+    private static final int BITS_PER_LEVEL = 4;
+    private static final int BRANCHING = 1 << BITS_PER_LEVEL;
+    private static final int LEVEL_MASK = BRANCHING - 1;
+
+    private final int capacity;
+
+    /**
+     * Number of levels of the trie; the nodes of the last level
+     * are long[] of words, the others are Object[] of nodes
+     */
+    private final int levels;
+
+    private final Object root;
+    private final int size;
+
+    private PersistentBitSet(int capacity, int levels, Object root, int size) {
+        this.capacity = capacity;
+        this.levels = levels;
+        this.root = root;
+        this.size = size;
+    }
+
+    private static int levelsFor(int capacity) {
+        int words = Math.max(1, (capacity + 63) >>> 6);
+        int levels = 1;
+        while (words > 1 << (BITS_PER_LEVEL * levels)) {
+            ++levels;
+        }
+        return levels;
+    }
+
+    public static PersistentBitSet empty(int capacity) {
+        return new PersistentBitSet(capacity, levelsFor(capacity), null, 0);
+    }
+
+    /**
+     * A set with the bits of the given words
+     */
+    public static PersistentBitSet of(long[] words, int capacity) {
+        int levels = levelsFor(capacity);
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return new PersistentBitSet(capacity, levels, build(words, 0, 0, levels), size);
+    }
+
+    /**
+     * The node of the given depth which holds the words from the first one
+     */
+    private static Object build(long[] words, int first, int depth, int levels) {
+        if (first >= words.length) {
+            return null;
+        }
+        if (depth == levels - 1) {
+            long[] leaf = new long[BRANCHING];
+            System.arraycopy(words, first, leaf, 0, Math.min(BRANCHING, words.length - first));
+            return leaf;
+        }
+
+        int wordsPerChild = 1 << (BITS_PER_LEVEL * (levels - 1 - depth));
+        Object[] node = new Object[BRANCHING];
+        for (int i = 0; i < BRANCHING; ++i) {
+            node[i] = build(words, first + i * wordsPerChild, depth + 1, levels);
+        }
+        return node;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private long word(int index) {
+        Object node = root;
+        for (int depth = 0; depth < levels - 1 && node != null; ++depth) {
+            node = ((Object[]) node)[(index >>> (BITS_PER_LEVEL * (levels - 1 - depth))) & LEVEL_MASK];
+        }
+        return node == null ? 0 : ((long[]) node)[index & LEVEL_MASK];
+    }
+
+    public boolean get(int bit) {
+        return bit >= 0 && bit < capacity && (word(bit >>> 6) & 1L << bit) != 0;
+    }
+
+    /**
+     * This set with the given bit set
+     */
+    public PersistentBitSet with(int bit) {
+        checkIndex(bit);
+        if (get(bit)) {
+            return this;
+        }
+        return new PersistentBitSet(capacity, levels, update(root, 0, bit, true), size + 1);
+    }
+
+    /**
+     * This set with the given bit cleared
+     */
+    public PersistentBitSet without(int bit) {
+        checkIndex(bit);
+        if (!get(bit)) {
+            return this;
+        }
+        return new PersistentBitSet(capacity, levels, update(root, 0, bit, false), size - 1);
+    }
+
+    private void checkIndex(int bit) {
+        if (bit < 0 || bit >= capacity) {
+            throw new IndexOutOfBoundsException("Bit: " + bit + ", Capacity: " + capacity);
+        }
+    }
+
+    /**
+     * A copy of the path from the node to the word of the bit
+     */
+    private Object update(Object node, int depth, int bit, boolean value) {
+        int index = bit >>> 6;
+        if (depth == levels - 1) {
+            long[] leaf = node == null ? new long[BRANCHING] : ((long[]) node).clone();
+            if (value) {
+                leaf[index & LEVEL_MASK] |= 1L << bit;
+            } else {
+                leaf[index & LEVEL_MASK] &= ~(1L << bit);
+            }
+            return leaf;
+        }
+
+        Object[] copy = node == null ? new Object[BRANCHING] : ((Object[]) node).clone();
+        int child = (index >>> (BITS_PER_LEVEL * (levels - 1 - depth))) & LEVEL_MASK;
+        copy[child] = update(copy[child], depth + 1, bit, value);
+        return copy;
+    }
+
+    /**
+     * The smallest bit of the set which is at least the given one, or -1
+     */
+    public int nextSetBit(int from) {
+        int words = (capacity + 63) >>> 6;
+        for (int index = Math.max(0, from) >>> 6; index < words; ++index) {
+            long word = word(index);
+            if (index == from >>> 6 && from > 0) {
+                word &= -1L << from;
+            }
+            if (word != 0) {
+                return (index << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The words of the set, in a new array
+     */
+    public long[] toLongArray() {
+        long[] words = new long[(capacity + 63) >>> 6];
+        for (int index = 0; index < words.length; ++index) {
+            words[index] = word(index);
+        }
+        return words;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PersistentBitSet other = (PersistentBitSet) o;
+        return size == other.size && Arrays.equals(toLongArray(), other.toLongArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toLongArray());
+    }
+}
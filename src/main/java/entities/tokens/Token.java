@@ -1,10 +1,18 @@
 package entities.tokens;
 
 /**
- * Generic type of token of a positional game
+ * Generic type of token of a positional game.
+ * Tokens are values: two tokens with the same contents
+ * are equal, so they can be interned by a {@link TokenRegistry}.
  *
  * @author Ioan Sava
  */
 public abstract class Token implements Comparable<Token> {
     abstract public int compareTo(Token token);
+
+    @Override
+    abstract public boolean equals(Object o);
+
+    @Override
+    abstract public int hashCode();
 }
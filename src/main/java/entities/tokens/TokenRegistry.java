@@ -0,0 +1,55 @@
+package entities.tokens;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns the tokens of a game: every distinct token
+ * gets a dense id, 0, 1, 2, ..., in the order in which
+ * it was registered, so that sets of tokens can be
+ * stored as bitsets over the ids (see {@link TokenSet}).
+ *
+ * @author Ioan Sava
+ */
+public class TokenRegistry implements TokenSpace {
+    private final List<Token> tokensById = new ArrayList<>();
+    private final Map<Token, Integer> ids = new HashMap<>();
+
+    /**
+     * The id of a token, or -1 if it was never registered
+     */
+    @Override
+    public int idOf(Token token) {
+        Integer id = ids.get(token);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * The id of a token, registering the token if it is new
+     */
+    @Override
+    public int register(Token token) {
+        Integer id = ids.get(token);
+        if (id == null) {
+            id = tokensById.size();
+            ids.put(token, id);
+            tokensById.add(token);
+        }
+        return id;
+    }
+
+    @Override
+    public Token tokenOf(int id) {
+        return tokensById.get(id);
+    }
+
+    /**
+     * The ids are between 0 and size() - 1
+     */
+    @Override
+    public int size() {
+        return tokensById.size();
+    }
+}
@@ -0,0 +1,188 @@
+package entities.tokens;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of tokens stored as a bitset over their ids
+ * in a {@link TokenSpace}, one bit per token of the space.
+ * The bits are kept in pages of 4096 which are allocated
+ * when a token of the page is added, so a small set of a
+ * large space (the hand of a player of a huge game) is small.
+ * It is iterated in the order of the ids.
+ * Adding a token which is not in the space registers it.
+ *
+ * @author Ioan Sava
+ */
+public class TokenSet extends AbstractSet<Token> {
+    private static final int WORDS_PER_PAGE = 64;
+    private static final int PAGE_SHIFT = 12;
+    private static final int WORD_MASK = WORDS_PER_PAGE - 1;
+
+    private final TokenSpace space;
+
+    /**
+     * pages[p] holds the ids from p * 4096, or is null if it has none
+     */
+    private long[][] pages;
+    private int size;
+
+    /**
+     * Changes of the set, which invalidate its iterators
+     */
+    private int modifications;
+
+    public TokenSet(TokenSpace space) {
+        this.space = space;
+        pages = new long[1][];
+    }
+
+    public TokenSpace getSpace() {
+        return space;
+    }
+
+    public boolean containsId(int id) {
+        int page = id >>> PAGE_SHIFT;
+        return page < pages.length && pages[page] != null &&
+                (pages[page][(id >>> 6) & WORD_MASK] & 1L << id) != 0;
+    }
+
+    /**
+     * @return true if the id was not in the set
+     */
+    public boolean addId(int id) {
+        int page = id >>> PAGE_SHIFT;
+        if (page >= pages.length) {
+            pages = Arrays.copyOf(pages, Math.max(page + 1, 2 * pages.length));
+        }
+        if (pages[page] == null) {
+            pages[page] = new long[WORDS_PER_PAGE];
+        }
+        long[] words = pages[page];
+        if ((words[(id >>> 6) & WORD_MASK] & 1L << id) != 0) {
+            return false;
+        }
+        words[(id >>> 6) & WORD_MASK] |= 1L << id;
+        ++size;
+        ++modifications;
+        return true;
+    }
+
+    /**
+     * @return true if the id was in the set
+     */
+    public boolean removeId(int id) {
+        if (!containsId(id)) {
+            return false;
+        }
+        pages[id >>> PAGE_SHIFT][(id >>> 6) & WORD_MASK] &= ~(1L << id);
+        --size;
+        ++modifications;
+        return true;
+    }
+
+    /**
+     * The smallest id of the set which is at least the given one, or -1
+     */
+    public int nextId(int from) {
+        for (int page = from >>> PAGE_SHIFT; page < pages.length; ++page) {
+            long[] words = pages[page];
+            if (words == null) {
+                continue;
+            }
+            int word = page == from >>> PAGE_SHIFT ? (from >>> 6) & WORD_MASK : 0;
+            long bits = words[word];
+            if (page == from >>> PAGE_SHIFT) {
+                bits &= -1L << from;
+            }
+            while (true) {
+                if (bits != 0) {
+                    return (page << PAGE_SHIFT) + (word << 6) + Long.numberOfTrailingZeros(bits);
+                }
+                if (++word == WORDS_PER_PAGE) {
+                    break;
+                }
+                bits = words[word];
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Token)) {
+            return false;
+        }
+        int id = space.idOf((Token) o);
+        return id != -1 && containsId(id);
+    }
+
+    @Override
+    public boolean add(Token token) {
+        return addId(space.register(token));
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Token)) {
+            return false;
+        }
+        int id = space.idOf((Token) o);
+        return id != -1 && removeId(id);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(pages, null);
+        size = 0;
+        ++modifications;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Token> iterator() {
+        return new Iterator<Token>() {
+            private int next = nextId(0);
+            private int last = -1;
+            private int expectedModifications = modifications;
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public Token next() {
+                if (next == -1) {
+                    throw new NoSuchElementException();
+                }
+                if (modifications != expectedModifications) {
+                    throw new ConcurrentModificationException();
+                }
+                last = next;
+                next = nextId(next + 1);
+                return space.tokenOf(last);
+            }
+
+            @Override
+            public void remove() {
+                if (last == -1) {
+                    throw new IllegalStateException();
+                }
+                if (modifications != expectedModifications) {
+                    throw new ConcurrentModificationException();
+                }
+                removeId(last);
+                last = -1;
+                expectedModifications = modifications;
+            }
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package entities.tokens;
+
+/**
+ * The tokens a game can use, numbered with dense ids
+ * 0, 1, ..., size() - 1, so that sets of tokens can be
+ * stored over the ids (see {@link TokenSet}).
+ * A space either stores its tokens ({@link TokenRegistry})
+ * or computes them from their ids when they are needed.
+ *
+ * @author Ioan Sava
+ */
+public interface TokenSpace {
+    /**
+     * The id of a token, or -1 if it is not in the space
+     */
+    int idOf(Token token);
+
+    /**
+     * The id of a token, adding the token to the space if it is new
+     *
+     * @throws IllegalArgumentException if the space cannot hold the token
+     */
+    int register(Token token);
+
+    Token tokenOf(int id);
+
+    /**
+     * The ids are between 0 and size() - 1
+     */
+    int size();
+}
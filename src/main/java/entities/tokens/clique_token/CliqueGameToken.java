@@ -1,10 +1,8 @@
 package entities.tokens.clique_token;
 
-import entities.tokens.ArithmeticProgressionToken;
 import entities.tokens.Token;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.Setter;
-import org.jgrapht.graph.DefaultEdge;
 
 /**
  * An instance of this class will hold
@@ -14,6 +12,7 @@ import org.jgrapht.graph.DefaultEdge;
  * @author Ioan Sava
  */
 @Getter
+@EqualsAndHashCode(callSuper = false)
 public class CliqueGameToken extends Token {
     private Node firstNode;
     private Node secondNode;
@@ -0,0 +1,103 @@
+package entities.tokens.clique_token;
+
+import entities.tokens.Token;
+import entities.tokens.TokenSpace;
+
+/**
+ * The edges of the complete graph with nodes labeled from 1 to n,
+ * numbered in the order in which they are shown: (1, 2), (1, 3), ...,
+ * (1, n), (2, 3), ... . The id of an edge is computed from its nodes
+ * and the edge from its id, so no token is stored and a space of
+ * any size is created in O(1); a token exists only while it is used.
+ *
+ * @author Ioan Sava
+ */
+public class CliqueTokenSpace implements TokenSpace {
+    /**
+     * The ids must fit in an int
+     */
+    public static final int MAXIMUM_NUMBER_OF_NODES = 65536;
+
+    private final int numberOfNodes;
+    private final int size;
+
+    public CliqueTokenSpace(int numberOfNodes) {
+        if (numberOfNodes < 0 || numberOfNodes > MAXIMUM_NUMBER_OF_NODES) {
+            throw new IllegalArgumentException("The number of nodes should be between 0 and " +
+                    MAXIMUM_NUMBER_OF_NODES);
+        }
+        this.numberOfNodes = numberOfNodes;
+        size = (int) ((long) numberOfNodes * (numberOfNodes - 1) / 2);
+    }
+
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    /**
+     * Number of edges whose first node is smaller than the given one
+     */
+    private long firstIdOf(int firstNode) {
+        long before = firstNode - 1;
+        return before * (2L * numberOfNodes - before - 1) / 2;
+    }
+
+    /**
+     * The id of the edge (firstNode, secondNode), or -1
+     * if the nodes are not 1 <= firstNode < secondNode <= n
+     */
+    public int idOf(int firstNode, int secondNode) {
+        if (firstNode < 1 || firstNode >= secondNode || secondNode > numberOfNodes) {
+            return -1;
+        }
+        return (int) (firstIdOf(firstNode) + secondNode - firstNode - 1);
+    }
+
+    /**
+     * The first node of the edge with the given id,
+     * the largest node whose first id is at most the id
+     */
+    private int firstNodeOf(int id) {
+        double b = 2.0 * numberOfNodes - 1;
+        int firstNode = 1 + (int) ((b - Math.sqrt(b * b - 8.0 * id)) / 2);
+        while (firstNode > 1 && firstIdOf(firstNode) > id) {
+            --firstNode;
+        }
+        while (firstNode < numberOfNodes - 1 && firstIdOf(firstNode + 1) <= id) {
+            ++firstNode;
+        }
+        return firstNode;
+    }
+
+    @Override
+    public int idOf(Token token) {
+        if (!(token instanceof CliqueGameToken)) {
+            return -1;
+        }
+        CliqueGameToken edge = (CliqueGameToken) token;
+        return idOf(edge.getFirstNode().getLabel(), edge.getSecondNode().getLabel());
+    }
+
+    @Override
+    public int register(Token token) {
+        int id = idOf(token);
+        if (id == -1) {
+            throw new IllegalArgumentException(token + " is not an edge of K" + numberOfNodes);
+        }
+        return id;
+    }
+
+    @Override
+    public Token tokenOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Id: " + id + ", Size: " + size);
+        }
+        int firstNode = firstNodeOf(id);
+        return new CliqueGameToken(firstNode, (int) (id - firstIdOf(firstNode)) + firstNode + 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,7 @@
+package exceptions;
+
+public class NotEnoughPlayersException extends Exception {
+    public NotEnoughPlayersException() {
+        super("The game needs at least two players in order to start");
+    }
+}
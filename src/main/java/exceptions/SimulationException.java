@@ -0,0 +1,7 @@
+package exceptions;
+
+public class SimulationException extends Exception {
+    public SimulationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
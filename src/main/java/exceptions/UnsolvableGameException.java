@@ -0,0 +1,7 @@
+package exceptions;
+
+public class UnsolvableGameException extends Exception {
+    public UnsolvableGameException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,97 @@
+package simulation;
+
+import entities.games.Game;
+import exceptions.SimulationException;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays a large number of headless games in parallel
+ * on a fork-join pool and aggregates their outcomes.
+ * Each game is played entirely on one worker thread
+ * (see {@link Game#simulate()}), so the players
+ * should not need any console input.
+ *
+ * @author Ioan Sava
+ */
+public class BatchSimulator {
+    /**
+     * Number of games played sequentially by a task
+     * before it is no longer split between workers.
+     */
+    private static final long GAMES_PER_TASK = 256;
+
+    private final GameSupplier gameSupplier;
+    private final ForkJoinPool pool;
+
+    public BatchSimulator(GameSupplier gameSupplier) {
+        this(gameSupplier, ForkJoinPool.commonPool());
+    }
+
+    public BatchSimulator(GameSupplier gameSupplier, ForkJoinPool pool) {
+        this.gameSupplier = gameSupplier;
+        this.pool = pool;
+    }
+
+    /**
+     * Plays the given number of games and
+     * returns the aggregated results.
+     *
+     * @throws SimulationException if a game could not be created or played
+     */
+    public SimulationResult run(long numberOfGames) throws SimulationException {
+        try {
+            return pool.invoke(new SimulationTask(0, numberOfGames));
+        } catch (FailedSimulation exception) {
+            throw new SimulationException("Simulation failed: " + exception.getCause().getMessage(),
+                    exception.getCause());
+        }
+    }
+
+    private SimulationResult simulateSequentially(long numberOfGames) {
+        SimulationResult result = new SimulationResult();
+        for (long i = 0; i < numberOfGames; ++i) {
+            try {
+                Game game = gameSupplier.get();
+                result.add(game, game.simulate());
+            } catch (Exception exception) {
+                throw new FailedSimulation(exception);
+            }
+        }
+        return result;
+    }
+
+    private class SimulationTask extends RecursiveTask<SimulationResult> {
+        private final long from;
+        private final long to;
+
+        SimulationTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                return simulateSequentially(to - from);
+            }
+
+            long middle = (from + to) >>> 1;
+            SimulationTask left = new SimulationTask(from, middle);
+            left.fork();
+            SimulationResult result = new SimulationTask(middle, to).compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+
+    /**
+     * Carries a checked exception out of a fork-join task.
+     */
+    private static class FailedSimulation extends RuntimeException {
+        FailedSimulation(Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package simulation;
+
+import entities.games.Game;
+
+/**
+ * Creates a new game, with its board and
+ * its players, for each simulation.
+ *
+ * @author Ioan Sava
+ */
+@FunctionalInterface
+public interface GameSupplier {
+    Game get() throws Exception;
+}
@@ -0,0 +1,226 @@
+package simulation;
+
+import entities.execution.ExecutionModel;
+import entities.games.Game;
+import entities.listeners.GameListener;
+import entities.metrics.LatencyHistogram;
+import entities.metrics.LatencySnapshot;
+import entities.players.Player;
+import entities.tokens.Token;
+import exceptions.SimulationException;
+
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps many live games running with {@link Game#start()},
+ * for soak tests of an execution model. New games are started
+ * at a target rate as long as fewer than the maximum number
+ * of games are live; a game which cannot be started because
+ * of the limit is skipped, and a game which fails to start
+ * (for example, because no more threads can be created)
+ * is counted as failed and ended.
+ * <p>
+ * Every interval it reports the games started and finished
+ * per second, the latency of the moves (from the moment the
+ * turn is given to the moment the token is picked), the number
+ * of live threads, the heap in use and the time spent in
+ * garbage collection.
+ *
+ * @author Ioan Sava
+ */
+public class LoadDriver {
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final GameSupplier gameSupplier;
+    private final ExecutionModel executionModel;
+    private final int maximumLiveGames;
+    private final double gamesPerSecond;
+
+    private final Semaphore liveGames;
+    private final LongAdder started = new LongAdder();
+    private final LongAdder finished = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private long skipped;
+
+    /**
+     * The latencies of the moves of the current interval and of the whole run
+     */
+    private volatile LatencyHistogram intervalMoves = new LatencyHistogram();
+    private final LatencyHistogram allMoves = new LatencyHistogram();
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final List<GarbageCollectorMXBean> garbageCollectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+    /**
+     * @param gameSupplier   creates the games, with their players; their listeners are replaced
+     * @param gamesPerSecond the target rate of new games
+     */
+    public LoadDriver(GameSupplier gameSupplier, ExecutionModel executionModel,
+                      int maximumLiveGames, double gamesPerSecond) {
+        this.gameSupplier = gameSupplier;
+        this.executionModel = executionModel;
+        this.maximumLiveGames = maximumLiveGames;
+        this.gamesPerSecond = gamesPerSecond;
+        liveGames = new Semaphore(maximumLiveGames);
+    }
+
+    /**
+     * Starts games for the given time, then waits for the live
+     * games to end for at most the given drain time.
+     *
+     * @throws SimulationException if a game could not be created
+     */
+    public void run(long durationInSeconds, long reportIntervalInSeconds, long drainTimeInSeconds, PrintStream out)
+            throws SimulationException, InterruptedException {
+        out.printf("%8s %6s %9s %9s %7s %7s %10s %10s %8s %9s %7s %8s%n", "time(s)", "live", "started/s",
+                "finished/s", "failed", "skipped", "p50(us)", "p99(us)", "threads", "heap(MB)", "gc", "gc(ms)");
+
+        long startTime = System.nanoTime();
+        long endTime = startTime + TimeUnit.SECONDS.toNanos(durationInSeconds);
+        long reportInterval = TimeUnit.SECONDS.toNanos(reportIntervalInSeconds);
+        long nextReport = startTime + reportInterval;
+        Sample previous = sample(startTime);
+        long now;
+        while ((now = System.nanoTime()) < endTime) {
+            long due = (long) ((now - startTime) / 1e9 * gamesPerSecond);
+            while (started.sum() + failed.sum() + skipped < due) {
+                if (liveGames.tryAcquire()) {
+                    startGame();
+                } else {
+                    ++skipped;
+                }
+            }
+            if (now >= nextReport) {
+                previous = report(previous, startTime, out);
+                nextReport += reportInterval;
+            }
+            TimeUnit.NANOSECONDS.sleep(TICK);
+        }
+
+        long drainEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(drainTimeInSeconds);
+        while (liveGames.availablePermits() < maximumLiveGames && System.nanoTime() < drainEnd) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        report(previous, startTime, out);
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        LatencySnapshot moves = allMoves.snapshot();
+        out.printf("%d games started, %d finished (%.1f per second), %d failed, %d skipped, %d still live%n",
+                started.sum(), finished.sum(), finished.sum() / seconds, failed.sum(), skipped,
+                maximumLiveGames - liveGames.availablePermits());
+        out.printf("%d moves, latency p50 %.1f us, p99 %.1f us, max %.1f us%n", moves.getCount(),
+                moves.getMedian() / 1e3, moves.getPercentile99() / 1e3, moves.getMax() / 1e3);
+    }
+
+    private void startGame() throws SimulationException {
+        Game game;
+        try {
+            game = gameSupplier.get();
+        } catch (Exception exception) {
+            liveGames.release();
+            throw new SimulationException("Cannot create a game: " + exception.getMessage(), exception);
+        }
+
+        LoadListener listener = new LoadListener();
+        game.setListener(listener);
+        game.setExecutionModel(executionModel);
+        try {
+            game.start();
+            started.increment();
+        } catch (Throwable throwable) {
+            failed.increment();
+            // Released first, so that the game is not counted as finished too
+            listener.release();
+            // Wakes the players which were already started, so that they exit
+            game.timeExpired();
+            game.getTimeKeeper().stop();
+        }
+    }
+
+    private Sample sample(long time) {
+        Sample sample = new Sample();
+        sample.time = time;
+        sample.started = started.sum();
+        sample.finished = finished.sum();
+        for (GarbageCollectorMXBean garbageCollector : garbageCollectors) {
+            sample.collections += Math.max(0, garbageCollector.getCollectionCount());
+            sample.collectionTime += Math.max(0, garbageCollector.getCollectionTime());
+        }
+        return sample;
+    }
+
+    private Sample report(Sample previous, long startTime, PrintStream out) {
+        Sample current = sample(System.nanoTime());
+        LatencyHistogram moves = intervalMoves;
+        intervalMoves = new LatencyHistogram();
+        LatencySnapshot latency = moves.snapshot();
+
+        double seconds = Math.max(1e-9, (current.time - previous.time) / 1e9);
+        out.printf("%8.1f %6d %9.1f %10.1f %7d %7d %10.1f %10.1f %8d %9d %7d %8d%n",
+                (current.time - startTime) / 1e9, maximumLiveGames - liveGames.availablePermits(),
+                (current.started - previous.started) / seconds, (current.finished - previous.finished) / seconds,
+                failed.sum(), skipped, latency.getMedian() / 1e3, latency.getPercentile99() / 1e3,
+                threads.getThreadCount(), memory.getHeapMemoryUsage().getUsed() >> 20,
+                current.collections - previous.collections, current.collectionTime - previous.collectionTime);
+        return current;
+    }
+
+    private static class Sample {
+        long time;
+        long started;
+        long finished;
+        long collections;
+        long collectionTime;
+    }
+
+    /**
+     * The listener of one game, which measures its moves
+     * and frees its place when it ends
+     */
+    private class LoadListener implements GameListener {
+        private volatile long turnStartTime;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void turnStarted(Game game, Player player) {
+            turnStartTime = System.nanoTime();
+        }
+
+        @Override
+        public void tokenPicked(Game game, Player player, Token token) {
+            long latency = System.nanoTime() - turnStartTime;
+            intervalMoves.record(latency);
+            allMoves.record(latency);
+        }
+
+        @Override
+        public void gameOver(Game game, Player winner, int[] scores) {
+            if (release()) {
+                finished.increment();
+            }
+        }
+
+        /**
+         * Frees the place of the game, once
+         *
+         * @return false if it was already freed
+         */
+        boolean release() {
+            if (released.compareAndSet(false, true)) {
+                liveGames.release();
+                return true;
+            }
+            return false;
+        }
+    }
+}
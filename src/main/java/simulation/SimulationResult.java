@@ -0,0 +1,126 @@
+package simulation;
+
+import entities.games.Game;
+import entities.games.GameResult;
+import entities.players.Player;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aggregated outcome of a batch of simulated games.
+ * The players are identified by their order number
+ * in the game, so every simulated game should have
+ * the same players, added in the same order.
+ *
+ * @author Ioan Sava
+ */
+@Getter
+public class SimulationResult {
+    private final List<String> playerNames = new ArrayList<>();
+    private long numberOfGames;
+    private long draws;
+    private long[] wins = new long[0];
+
+    /**
+     * scoreDistribution[i][s] is the number of games
+     * in which the i-th player finished with s points
+     */
+    private long[][] scoreDistribution = new long[0][];
+
+    private void ensurePlayers(int numberOfPlayers) {
+        if (wins.length < numberOfPlayers) {
+            wins = Arrays.copyOf(wins, numberOfPlayers);
+            long[][] distribution = Arrays.copyOf(scoreDistribution, numberOfPlayers);
+            for (int i = scoreDistribution.length; i < numberOfPlayers; ++i) {
+                distribution[i] = new long[0];
+            }
+            scoreDistribution = distribution;
+        }
+    }
+
+    private void addScores(int player, int score, long count) {
+        if (scoreDistribution[player].length <= score) {
+            scoreDistribution[player] = Arrays.copyOf(scoreDistribution[player], score + 1);
+        }
+        scoreDistribution[player][score] += count;
+    }
+
+    /**
+     * Records the outcome of one finished game.
+     */
+    public void add(Game game, GameResult result) {
+        if (playerNames.isEmpty()) {
+            for (Player player : game.getListOfPlayers()) {
+                playerNames.add(player.getName());
+            }
+        }
+
+        int[] scores = result.getScores();
+        ensurePlayers(scores.length);
+        ++numberOfGames;
+        if (result.isDraw()) {
+            ++draws;
+        } else {
+            ++wins[result.getWinner()];
+        }
+        for (int i = 0; i < scores.length; ++i) {
+            addScores(i, scores[i], 1);
+        }
+    }
+
+    /**
+     * Adds the games of another batch to this one.
+     */
+    public void merge(SimulationResult other) {
+        if (playerNames.isEmpty()) {
+            playerNames.addAll(other.playerNames);
+        }
+
+        ensurePlayers(other.wins.length);
+        numberOfGames += other.numberOfGames;
+        draws += other.draws;
+        for (int i = 0; i < other.wins.length; ++i) {
+            wins[i] += other.wins[i];
+            for (int score = 0; score < other.scoreDistribution[i].length; ++score) {
+                if (other.scoreDistribution[i][score] > 0) {
+                    addScores(i, score, other.scoreDistribution[i][score]);
+                }
+            }
+        }
+    }
+
+    public double winRate(int player) {
+        return numberOfGames == 0 ? 0 : (double) wins[player] / numberOfGames;
+    }
+
+    public double drawRate() {
+        return numberOfGames == 0 ? 0 : (double) draws / numberOfGames;
+    }
+
+    /**
+     * Average final score of a player
+     */
+    public double averageScore(int player) {
+        long total = 0;
+        for (int score = 0; score < scoreDistribution[player].length; ++score) {
+            total += score * scoreDistribution[player][score];
+        }
+        return numberOfGames == 0 ? 0 : (double) total / numberOfGames;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("Games: ").append(numberOfGames).append("\n");
+        stringBuilder.append(String.format("Draws: %d (%.2f%%)%n", draws, 100 * drawRate()));
+        for (int i = 0; i < wins.length; ++i) {
+            String name = i < playerNames.size() ? playerNames.get(i) : "Player " + i;
+            stringBuilder.append(String.format("%s: %d wins (%.2f%%), average score %.3f, scores %s%n",
+                    name, wins[i], 100 * winRate(i), averageScore(i), Arrays.toString(scoreDistribution[i])));
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package entities.games;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the incremental score of a hand of the arithmetic progression
+ * game against the longest progression measured from scratch,
+ * after random sequences of additions, removals, undos and restores.
+ *
+ * @author Ioan Sava
+ */
+class ArithmeticProgressionScorerTest {
+    private static final int NUMBER_OF_SEEDS = 200;
+    private static final int OPERATIONS_PER_SEED = 300;
+
+    /**
+     * The blank token (0) adds one point, as a wildcard
+     */
+    private static int bruteForceScore(TreeSet<Integer> hand) {
+        List<Integer> values = new ArrayList<>(hand.tailSet(1));
+        int longest = Math.min(values.size(), 2);
+        for (int i = 0; i < values.size(); ++i) {
+            for (int j = i + 1; j < values.size(); ++j) {
+                int difference = values.get(j) - values.get(i);
+                int length = 2;
+                for (int term = values.get(j) + difference; hand.contains(term); term += difference) {
+                    ++length;
+                }
+                longest = Math.max(longest, length);
+            }
+        }
+        return longest + (hand.contains(0) ? 1 : 0);
+    }
+
+    /**
+     * Values around the maximum value given to the scorer,
+     * so that its bitset must sometimes grow
+     */
+    private static int randomValue(Random random, int maximumValue) {
+        return random.nextInt(maximumValue + maximumValue / 2 + 1);
+    }
+
+    @Test
+    void addAndRemoveMatchBruteForce() {
+        for (int seed = 0; seed < NUMBER_OF_SEEDS; ++seed) {
+            Random random = new Random(seed);
+            int maximumValue = 1 + random.nextInt(seed % 2 == 0 ? 40 : 200);
+            ArithmeticProgressionScorer scorer = new ArithmeticProgressionScorer(maximumValue);
+            TreeSet<Integer> hand = new TreeSet<>();
+            for (int operation = 0; operation < OPERATIONS_PER_SEED; ++operation) {
+                int value = randomValue(random, maximumValue);
+                if (random.nextInt(3) == 0) {
+                    scorer.remove(value);
+                    hand.remove(value);
+                } else {
+                    scorer.add(value);
+                    hand.add(value);
+                }
+                assertEquals(bruteForceScore(hand), scorer.score(), "seed " + seed + ", hand " + hand);
+            }
+        }
+    }
+
+    @Test
+    void undoRestoresThePreviousScore() {
+        for (int seed = 0; seed < NUMBER_OF_SEEDS; ++seed) {
+            Random random = new Random(seed);
+            int maximumValue = 1 + random.nextInt(100);
+            ArithmeticProgressionScorer scorer = new ArithmeticProgressionScorer(maximumValue);
+            TreeSet<Integer> hand = new TreeSet<>();
+            Deque<int[]> moves = new ArrayDeque<>();
+            for (int operation = 0; operation < OPERATIONS_PER_SEED; ++operation) {
+                // As in a game, a value is never taken twice and only the last move is undone
+                int value = randomValue(random, maximumValue);
+                if (!moves.isEmpty() && (random.nextInt(3) == 0 || hand.contains(value))) {
+                    int[] move = moves.pop();
+                    scorer.undo(move[0], move[1]);
+                    hand.remove(move[0]);
+                } else {
+                    moves.push(new int[]{value, scorer.score()});
+                    scorer.add(value);
+                    hand.add(value);
+                }
+                assertEquals(bruteForceScore(hand), scorer.score(), "seed " + seed + ", hand " + hand);
+            }
+        }
+    }
+
+    @Test
+    void restoreKeepsTheGivenScore() {
+        for (int seed = 0; seed < NUMBER_OF_SEEDS; ++seed) {
+            Random random = new Random(seed);
+            int maximumValue = 1 + random.nextInt(100);
+            ArithmeticProgressionScorer scorer = new ArithmeticProgressionScorer(maximumValue);
+            TreeSet<Integer> hand = new TreeSet<>();
+            int numberOfValues = random.nextInt(maximumValue + 1);
+            for (int i = 0; i < numberOfValues; ++i) {
+                int value = randomValue(random, maximumValue);
+                hand.add(value);
+                scorer.restore(value, bruteForceScore(hand));
+                assertEquals(bruteForceScore(hand), scorer.score(), "seed " + seed + ", hand " + hand);
+            }
+
+            // A restored hand keeps being scored incrementally
+            for (int operation = 0; operation < OPERATIONS_PER_SEED / 10; ++operation) {
+                int value = randomValue(random, maximumValue);
+                scorer.add(value);
+                hand.add(value);
+                assertEquals(bruteForceScore(hand), scorer.score(), "seed " + seed + ", hand " + hand);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package entities.games;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the incremental score of a hand of the clique game
+ * against the largest clique found by exhaustive search,
+ * after random sequences of added, undone and restored edges.
+ *
+ * @author Ioan Sava
+ */
+class CliqueScorerTest {
+    private static final int NUMBER_OF_SEEDS = 200;
+
+    /**
+     * The size of the largest clique, or 0 for a graph without edges
+     */
+    private static int bruteForceScore(boolean[][] edges) {
+        int numberOfVertices = edges.length;
+        int[] clique = new int[numberOfVertices];
+        int largest = largestClique(edges, clique, 0, 0);
+        return largest < 2 ? 0 : largest;
+    }
+
+    /**
+     * The largest clique which extends the given one with vertices from the given one on
+     */
+    private static int largestClique(boolean[][] edges, int[] clique, int size, int from) {
+        int largest = size;
+        for (int vertex = from; vertex < edges.length; ++vertex) {
+            boolean adjacent = true;
+            for (int i = 0; i < size && adjacent; ++i) {
+                adjacent = edges[clique[i]][vertex];
+            }
+            if (adjacent) {
+                clique[size] = vertex;
+                largest = Math.max(largest, largestClique(edges, clique, size + 1, vertex + 1));
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * Small graphs become dense, while graphs of more
+     * than 64 vertices need several words per row
+     */
+    private static int randomNumberOfVertices(Random random, int seed) {
+        return seed % 4 == 0 ? 65 + random.nextInt(30) : 2 + random.nextInt(12);
+    }
+
+    private static int numberOfOperations(int numberOfVertices) {
+        return Math.min(numberOfVertices * (numberOfVertices - 1) / 2, 150);
+    }
+
+    @Test
+    void addEdgeMatchesBruteForce() {
+        for (int seed = 0; seed < NUMBER_OF_SEEDS; ++seed) {
+            Random random = new Random(seed);
+            int numberOfVertices = randomNumberOfVertices(random, seed);
+            CliqueScorer scorer = new CliqueScorer(numberOfVertices);
+            boolean[][] edges = new boolean[numberOfVertices][numberOfVertices];
+            for (int operation = 0; operation < numberOfOperations(numberOfVertices); ++operation) {
+                int first = random.nextInt(numberOfVertices);
+                int second = random.nextInt(numberOfVertices);
+                if (first == second) {
+                    continue;
+                }
+                // An edge may be added twice
+                scorer.addEdge(first, second);
+                edges[first][second] = edges[second][first] = true;
+                assertEquals(bruteForceScore(edges), scorer.score(),
+                        "seed " + seed + ", edge " + first + "-" + second);
+            }
+        }
+    }
+
+    @Test
+    void undoEdgeRestoresThePreviousScore() {
+        for (int seed = 0; seed < NUMBER_OF_SEEDS; ++seed) {
+            Random random = new Random(seed);
+            int numberOfVertices = randomNumberOfVertices(random, seed);
+            CliqueScorer scorer = new CliqueScorer(numberOfVertices);
+            boolean[][] edges = new boolean[numberOfVertices][numberOfVertices];
+            Deque<int[]> moves = new ArrayDeque<>();
+            for (int operation = 0; operation < 2 * numberOfOperations(numberOfVertices); ++operation) {
+                // As in a game, an edge is never taken twice and only the last move is undone
+                int first = random.nextInt(numberOfVertices);
+                int second = random.nextInt(numberOfVertices);
+                if (!moves.isEmpty() && (random.nextInt(3) == 0 || first == second || edges[first][second])) {
+                    int[] move = moves.pop();
+                    scorer.undoEdge(move[0], move[1], move[2]);
+                    edges[move[0]][move[1]] = edges[move[1]][move[0]] = false;
+                } else if (first != second && !edges[first][second]) {
+                    moves.push(new int[]{first, second, scorer.score()});
+                    scorer.addEdge(first, second);
+                    edges[first][second] = edges[second][first] = true;
+                }
+                assertEquals(bruteForceScore(edges), scorer.score(), "seed " + seed);
+            }
+        }
+    }
+
+    @Test
+    void restoreEdgeKeepsTheGivenScore() {
+        for (int seed = 0; seed < NUMBER_OF_SEEDS; ++seed) {
+            Random random = new Random(seed);
+            int numberOfVertices = randomNumberOfVertices(random, seed);
+            CliqueScorer scorer = new CliqueScorer(numberOfVertices);
+            boolean[][] edges = new boolean[numberOfVertices][numberOfVertices];
+            for (int i = 0; i < numberOfOperations(numberOfVertices); ++i) {
+                int first = random.nextInt(numberOfVertices);
+                int second = random.nextInt(numberOfVertices);
+                if (first != second && !edges[first][second]) {
+                    edges[first][second] = edges[second][first] = true;
+                    scorer.restoreEdge(first, second, bruteForceScore(edges));
+                }
+            }
+            assertEquals(bruteForceScore(edges), scorer.score(), "seed " + seed);
+
+            // A restored hand keeps being scored incrementally
+            for (int operation = 0; operation < 20; ++operation) {
+                int first = random.nextInt(numberOfVertices);
+                int second = random.nextInt(numberOfVertices);
+                if (first != second) {
+                    scorer.addEdge(first, second);
+                    edges[first][second] = edges[second][first] = true;
+                    assertEquals(bruteForceScore(edges), scorer.score(), "seed " + seed);
+                }
+            }
+        }
+    }
+}